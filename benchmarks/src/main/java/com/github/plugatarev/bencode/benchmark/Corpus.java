@@ -0,0 +1,104 @@
+package com.github.plugatarev.bencode.benchmark;
+
+import com.github.plugatarev.bencode.error.ConsoleReporter;
+import com.github.plugatarev.bencode.lexer.Lexer;
+import com.github.plugatarev.bencode.lexer.Token;
+import com.github.plugatarev.bencode.parser.Element;
+import com.github.plugatarev.bencode.parser.Parser;
+import com.github.plugatarev.bencode.writer.BencodeWriter;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generated inputs shaped like real traffic: a compact announce response, a multi-file
+ * torrent with many pieces, deeply nested lists and a dictionary with many keys.
+ */
+@State(Scope.Benchmark)
+public class Corpus {
+    @Param({"announce", "torrent", "nested", "wide"})
+    public String shape;
+
+    public byte[] bytes;
+    public List<Token> tokens;
+    public Element element;
+
+    @Setup
+    public void setup() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BencodeWriter writer = new BencodeWriter(out);
+        Random random = new Random(42);
+        switch (shape) {
+            case "announce" -> announce(writer, random);
+            case "torrent" -> torrent(writer, random);
+            case "nested" -> nested(writer);
+            case "wide" -> wide(writer);
+            default -> throw new IllegalArgumentException(shape);
+        }
+        writer.flush();
+        bytes = out.toByteArray();
+        tokens = Lexer.scan(ByteBuffer.wrap(bytes), new ConsoleReporter());
+        element = Parser.parse(ByteBuffer.wrap(bytes), new ConsoleReporter());
+    }
+
+    private static void announce(BencodeWriter writer, Random random) {
+        writer.beginDictionary()
+                .key("complete").value(120)
+                .key("incomplete").value(31)
+                .key("interval").value(1800)
+                .key("min interval").value(900)
+                .key("peers").value(new Element.BString(randomBytes(random, 6 * 50)))
+                .end();
+    }
+
+    private static void torrent(BencodeWriter writer, Random random) {
+        writer.beginDictionary()
+                .key("announce").value("http://tracker.example.org:6969/announce")
+                .key("created by").value("mktorrent 1.1")
+                .key("creation date").value(1700000000)
+                .key("info").beginDictionary()
+                .key("files").beginList();
+        for (int i = 0; i < 200; i++) {
+            writer.beginDictionary()
+                    .key("length").value(1 + random.nextInt(50_000_000))
+                    .key("path").beginList().value("disc " + i / 20).value("track-" + i + ".flac").end()
+                    .end();
+        }
+        writer.end()
+                .key("name").value("Some Album Collection")
+                .key("piece length").value(262144)
+                .key("pieces").value(new Element.BString(randomBytes(random, 20 * 20_000)))
+                .end()
+                .end();
+    }
+
+    private static void nested(BencodeWriter writer) {
+        int depth = 500;
+        for (int i = 0; i < depth; i++) {
+            writer.beginList().value(i).value("level");
+        }
+        for (int i = 0; i < depth; i++) {
+            writer.end();
+        }
+    }
+
+    private static void wide(BencodeWriter writer) {
+        writer.beginDictionary();
+        for (int i = 0; i < 10_000; i++) {
+            writer.key("key%05d".formatted(i)).value(i);
+        }
+        writer.end();
+    }
+
+    private static byte[] randomBytes(Random random, int n) {
+        byte[] bytes = new byte[n];
+        random.nextBytes(bytes);
+        return bytes;
+    }
+}
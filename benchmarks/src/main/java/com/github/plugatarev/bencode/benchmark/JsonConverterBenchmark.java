@@ -0,0 +1,28 @@
+package com.github.plugatarev.bencode.benchmark;
+
+import com.github.plugatarev.bencode.JsonConverter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class JsonConverterBenchmark {
+
+    @Benchmark
+    public String json(Corpus corpus, Bytes bytes) {
+        bytes.bytes += corpus.bytes.length;
+        return new JsonConverter().json(corpus.element);
+    }
+
+    @Benchmark
+    public void jsonToWriter(Corpus corpus, Bytes bytes) throws IOException {
+        bytes.bytes += corpus.bytes.length;
+        new JsonConverter().json(corpus.element, Writer.nullWriter());
+    }
+}
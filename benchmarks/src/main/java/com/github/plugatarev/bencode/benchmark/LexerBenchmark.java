@@ -0,0 +1,24 @@
+package com.github.plugatarev.bencode.benchmark;
+
+import com.github.plugatarev.bencode.error.ConsoleReporter;
+import com.github.plugatarev.bencode.lexer.Lexer;
+import com.github.plugatarev.bencode.lexer.Token;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class LexerBenchmark {
+
+    @Benchmark
+    public List<Token> scan(Corpus corpus, Bytes bytes) {
+        bytes.bytes += corpus.bytes.length;
+        return Lexer.scan(ByteBuffer.wrap(corpus.bytes), new ConsoleReporter());
+    }
+}
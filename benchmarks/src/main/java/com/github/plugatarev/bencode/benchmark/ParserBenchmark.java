@@ -0,0 +1,51 @@
+package com.github.plugatarev.bencode.benchmark;
+
+import com.github.plugatarev.bencode.error.ConsoleReporter;
+import com.github.plugatarev.bencode.lexer.Lexer;
+import com.github.plugatarev.bencode.parser.Element;
+import com.github.plugatarev.bencode.parser.ParallelParser;
+import com.github.plugatarev.bencode.parser.Parser;
+import com.github.plugatarev.bencode.parser.ReusableParser;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class ParserBenchmark {
+
+    @Benchmark
+    public Element parseTokens(Corpus corpus, Bytes bytes) {
+        bytes.bytes += corpus.bytes.length;
+        return Parser.parse(corpus.tokens, new ConsoleReporter());
+    }
+
+    @Benchmark
+    public Element scanAndParse(Corpus corpus, Bytes bytes) {
+        bytes.bytes += corpus.bytes.length;
+        ConsoleReporter reporter = new ConsoleReporter();
+        return Parser.parse(Lexer.scan(ByteBuffer.wrap(corpus.bytes), reporter), reporter);
+    }
+
+    @Benchmark
+    public Element singlePass(Corpus corpus, Bytes bytes) {
+        bytes.bytes += corpus.bytes.length;
+        return Parser.parse(ByteBuffer.wrap(corpus.bytes), new ConsoleReporter());
+    }
+
+    @Benchmark
+    public Element parallel(Corpus corpus, Bytes bytes) {
+        bytes.bytes += corpus.bytes.length;
+        return ParallelParser.parse(ByteBuffer.wrap(corpus.bytes), new ConsoleReporter());
+    }
+
+    @Benchmark
+    public Element reusable(Corpus corpus, Bytes bytes) {
+        bytes.bytes += corpus.bytes.length;
+        return ReusableParser.forCurrentThread().parse(ByteBuffer.wrap(corpus.bytes), new ConsoleReporter());
+    }
+}
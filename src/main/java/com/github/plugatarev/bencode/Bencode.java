@@ -0,0 +1,59 @@
+package com.github.plugatarev.bencode;
+
+import com.github.plugatarev.bencode.error.ErrorReporter;
+import com.github.plugatarev.bencode.lexer.ByteInput;
+import com.github.plugatarev.bencode.parser.Element;
+import com.github.plugatarev.bencode.parser.LazyParser;
+import com.github.plugatarev.bencode.parser.ParallelParser;
+import com.github.plugatarev.bencode.parser.Parser;
+import com.github.plugatarev.bencode.parser.Validator;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ForkJoinPool;
+
+public final class Bencode {
+
+    private Bencode() {
+    }
+
+    /**
+     * Parses the file through a read-only memory mapping. Strings of the result are
+     * slices of the mapping, so the file is not copied into the heap.
+     */
+    public static Element parse(Path path, ErrorReporter reporter) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return Parser.parse(ByteInput.map(channel), reporter);
+        }
+    }
+
+    /**
+     * Maps the file and returns elements that are parsed on first access,
+     * see {@link LazyParser}. The file has to be smaller than 2 GiB.
+     */
+    public static Element parseLazy(Path path, ErrorReporter reporter) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return LazyParser.parse(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), reporter);
+        }
+    }
+
+    /**
+     * Parses a top-level list of a file of any size on all cores of the common pool,
+     * see {@link ParallelParser}.
+     */
+    public static Element parseParallel(Path path, ErrorReporter reporter) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return ParallelParser.parse(channel, reporter, ForkJoinPool.commonPool());
+        }
+    }
+
+    /**
+     * Checks the buffer without building elements, see {@link Validator}.
+     */
+    public static Validator.Verdict validate(ByteBuffer buffer) {
+        return Validator.validate(buffer);
+    }
+}
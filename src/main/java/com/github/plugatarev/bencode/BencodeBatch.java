@@ -0,0 +1,108 @@
+package com.github.plugatarev.bencode;
+
+import com.github.plugatarev.bencode.error.CollectingReporter;
+import com.github.plugatarev.bencode.error.ErrorKind;
+import com.github.plugatarev.bencode.parser.Element;
+import com.github.plugatarev.bencode.parser.Parser;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Parses many documents in parallel. Every document is parsed by one task with its own
+ * {@link CollectingReporter}, and the results come back in the order of the inputs.
+ */
+public final class BencodeBatch {
+
+    private BencodeBatch() {
+    }
+
+    /**
+     * @param element parsed document, null if it has errors or is empty
+     * @param errors  messages reported while parsing the document
+     */
+    public record Result(Element element, List<String> errors) {
+        public boolean isValid() {
+            return element != null && errors.isEmpty();
+        }
+    }
+
+    public static List<Result> parseAll(Collection<Path> paths) {
+        return parseAll(paths, ForkJoinPool.commonPool());
+    }
+
+    public static List<Result> parseAll(Collection<Path> paths, Executor executor) {
+        List<CompletableFuture<Result>> futures = new ArrayList<>(paths.size());
+        for (Path path : paths) {
+            futures.add(CompletableFuture.supplyAsync(() -> parse(path), executor));
+        }
+        return join(futures);
+    }
+
+    public static List<Result> parseAllBuffers(Collection<ByteBuffer> buffers) {
+        return parseAllBuffers(buffers, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Buffers are read from their position to their limit and are not modified.
+     */
+    public static List<Result> parseAllBuffers(Collection<ByteBuffer> buffers, Executor executor) {
+        List<CompletableFuture<Result>> futures = new ArrayList<>(buffers.size());
+        for (ByteBuffer buffer : buffers) {
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                CollectingReporter reporter = new CollectingReporter();
+                try {
+                    return result(Parser.parse(buffer, reporter), reporter);
+                } catch (RuntimeException e) {
+                    return failure(e.toString(), reporter);
+                }
+            }, executor));
+        }
+        return join(futures);
+    }
+
+    /**
+     * Parses one file on the calling thread. Any failure, including an unchecked one,
+     * ends up in the errors of the result.
+     */
+    public static Result parse(Path path) {
+        CollectingReporter reporter = new CollectingReporter();
+        try {
+            return result(Bencode.parse(path, reporter), reporter);
+        } catch (IOException e) {
+            reporter.report(ErrorKind.IO, path + ": " + e.getMessage());
+            return result(null, reporter);
+        } catch (UncheckedIOException e) {
+            reporter.report(ErrorKind.IO, path + ": " + e.getCause().getMessage());
+            return result(null, reporter);
+        } catch (RuntimeException e) {
+            return failure(path + ": " + e, reporter);
+        }
+    }
+
+    private static Result failure(String message, CollectingReporter reporter) {
+        reporter.report(message);
+        return result(null, reporter);
+    }
+
+    private static Result result(Element element, CollectingReporter reporter) {
+        if (element == null && !reporter.hasError()) reporter.report(ErrorKind.SYNTAX, "Empty input");
+        return new Result(reporter.hasError() ? null : element, List.copyOf(reporter.messages()));
+    }
+
+    private static List<Result> join(List<CompletableFuture<Result>> futures) {
+        List<Result> results = new ArrayList<>(futures.size());
+        for (CompletableFuture<Result> future : futures) {
+            results.add(future.join());
+        }
+        return results;
+    }
+}
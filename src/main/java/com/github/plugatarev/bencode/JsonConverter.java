@@ -1,40 +1,201 @@
 package com.github.plugatarev.bencode;
 
+import com.github.plugatarev.bencode.convert.BencodeSource;
+import com.github.plugatarev.bencode.convert.EventSink;
+import com.github.plugatarev.bencode.convert.Utf8;
+import com.github.plugatarev.bencode.parser.BencodeReader;
 import com.github.plugatarev.bencode.parser.Element;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 
-public class JsonConverter {
+/**
+ * Writes JSON straight to an {@link Appendable}. Strings that are valid UTF-8 are written
+ * as text, any other string is written byte per char with bytes above 0x7F escaped.
+ * Pretty output puts every dictionary entry on its own line and keeps lists on one line.
+ */
+public class JsonConverter implements EventSink {
 
-    int nestingLevel;
     private static final int SHIFT = 2;
+    private final boolean compact;
+    private final char[] digits = new char[20];
+    private Appendable out;
+    private boolean[] lists = new boolean[8];
+    private boolean[] empty = new boolean[8];
+    private int depth;
+    private int nestingLevel;
+
+    public JsonConverter() {
+        this(false);
+    }
+
+    public JsonConverter(boolean compact) {
+        this.compact = compact;
+    }
 
     public String json(Element element) {
-        return switch (element) {
-            case Element.BInteger bInteger -> String.valueOf(bInteger.value());
-            case Element.BDictionary bDictionary -> {
-                StringBuilder sb = new StringBuilder();
-                if (nestingLevel == 0) appendStrings(sb, "{", "\n");
-                else appendStrings(sb, "\n", shifted("{"), "\n");
-
-                nestingLevel++;
-                bDictionary.dict().forEach((k, v) -> appendStrings(sb, shifted(k), ": ", json(v), "\n"));
-                nestingLevel--;
-
-                sb.append(shifted("}"));
-                yield sb.toString();
-            }
-            case Element.BList bList -> bList.list().toString();
-            case Element.BString bString -> bString.toString();
-        };
+        StringBuilder sb = new StringBuilder();
+        try {
+            json(element, sb);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return sb.toString();
     }
 
-    private void appendStrings(StringBuilder sb, String... part){
-        for (String p : part){
-            sb.append(p);
+    public void json(Element element, Appendable out) throws IOException {
+        BencodeSource.copy(element, sink(out));
+    }
+
+    /**
+     * Converts the next value of the reader without building an element tree.
+     */
+    public void json(BencodeReader reader, Appendable out) throws IOException {
+        BencodeSource.copy(reader, sink(out));
+    }
+
+    /**
+     * Starts a new value written to {@code out} through the event methods.
+     */
+    public JsonConverter sink(Appendable out) {
+        this.out = out;
+        depth = 0;
+        nestingLevel = 0;
+        return this;
+    }
+
+    @Override
+    public void beginDictionary() throws IOException {
+        member();
+        out.append('{');
+        push(false);
+        nestingLevel++;
+    }
+
+    @Override
+    public void beginList() throws IOException {
+        member();
+        out.append('[');
+        push(true);
+    }
+
+    @Override
+    public void end() throws IOException {
+        depth--;
+        if (lists[depth]) {
+            out.append(']');
+            return;
         }
+        nestingLevel--;
+        if (!empty[depth]) newLine();
+        out.append('}');
     }
 
-    private String shifted(Object value) {
-        return " ".repeat(nestingLevel * SHIFT) + value;
+    @Override
+    public void key(ByteBuffer key) throws IOException {
+        if (!empty[depth - 1]) out.append(',');
+        empty[depth - 1] = false;
+        newLine();
+        quoted(key);
+        out.append(compact ? ":" : ": ");
+    }
+
+    @Override
+    public void string(ByteBuffer bytes) throws IOException {
+        member();
+        quoted(bytes);
+    }
+
+    @Override
+    public void integer(long value) throws IOException {
+        member();
+        int pos = digits.length;
+        long rest = value;
+        do {
+            digits[--pos] = (char) ('0' + Math.abs(rest % 10));
+            rest /= 10;
+        } while (rest != 0);
+        if (value < 0) digits[--pos] = '-';
+        for (; pos < digits.length; pos++) {
+            out.append(digits[pos]);
+        }
+    }
+
+    @Override
+    public void integer(BigInteger value) throws IOException {
+        member();
+        out.append(value.toString());
+    }
+
+    private void member() throws IOException {
+        if (depth == 0 || !lists[depth - 1]) return;
+        if (!empty[depth - 1]) out.append(compact ? "," : ", ");
+        empty[depth - 1] = false;
+    }
+
+    private void push(boolean list) {
+        if (depth == lists.length) {
+            lists = Arrays.copyOf(lists, depth * 2);
+            empty = Arrays.copyOf(empty, depth * 2);
+        }
+        lists[depth] = list;
+        empty[depth] = true;
+        depth++;
+    }
+
+    private void newLine() throws IOException {
+        if (compact) return;
+        out.append('\n');
+        for (int i = 0; i < nestingLevel * SHIFT; i++) {
+            out.append(' ');
+        }
+    }
+
+    private void quoted(ByteBuffer bytes) throws IOException {
+        boolean utf8 = Utf8.isValid(bytes);
+        out.append('"');
+        int i = bytes.position();
+        while (i < bytes.limit()) {
+            int b = bytes.get(i) & 0xFF;
+            if (!utf8 || b < 0x80) {
+                escaped((char) b);
+                i++;
+                continue;
+            }
+            int n = b >= 0xF0 ? 3 : b >= 0xE0 ? 2 : 1;
+            int codePoint = b & (0x3F >> n);
+            for (int k = 1; k <= n; k++) {
+                codePoint = codePoint << 6 | bytes.get(i + k) & 0x3F;
+            }
+            i += n + 1;
+            if (Character.isSupplementaryCodePoint(codePoint)) {
+                out.append(Character.highSurrogate(codePoint)).append(Character.lowSurrogate(codePoint));
+            } else {
+                out.append((char) codePoint);
+            }
+        }
+        out.append('"');
+    }
+
+    private void escaped(char c) throws IOException {
+        switch (c) {
+            case '"' -> out.append("\\\"");
+            case '\\' -> out.append("\\\\");
+            case '\n' -> out.append("\\n");
+            case '\r' -> out.append("\\r");
+            case '\t' -> out.append("\\t");
+            case '\b' -> out.append("\\b");
+            case '\f' -> out.append("\\f");
+            default -> {
+                if (c >= 0x20 && c < 0x7F) {
+                    out.append(c);
+                } else {
+                    out.append("\\u00").append(Character.forDigit(c >> 4, 16)).append(Character.forDigit(c & 0xF, 16));
+                }
+            }
+        }
     }
 }
@@ -1,37 +1,139 @@
 package com.github.plugatarev.bencode;
 
-import com.github.plugatarev.bencode.error.FileReporter;
-import com.github.plugatarev.bencode.lexer.Lexer;
-import com.github.plugatarev.bencode.lexer.Token;
-import com.github.plugatarev.bencode.parser.Element;
-import com.github.plugatarev.bencode.parser.Parser;
+import com.github.plugatarev.bencode.error.CollectingReporter;
+import com.github.plugatarev.bencode.error.ConsoleReporter;
+import com.github.plugatarev.bencode.error.ErrorKind;
+import com.github.plugatarev.bencode.error.ErrorReporter;
+import com.github.plugatarev.bencode.lexer.ByteInput;
+import com.github.plugatarev.bencode.parser.BencodeReader;
+import com.github.plugatarev.bencode.parser.Event;
+import com.github.plugatarev.bencode.parser.ParserException;
 
 import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 public class Main {
+    private static final String STANDARD_STREAM = "-";
+    private static final String GZIP_SUFFIX = ".gz";
+    private static final int BUFFER_SIZE = 1 << 16;
+
     public static void main(String[] args) throws Exception {
         if (args.length < 2){
             System.err.println("I/O files specified incorrectly or not specified\n");
             return;
         }
-        Path input = Paths.get(args[0]).toAbsolutePath();
-        Path output = Paths.get(args[1]).toAbsolutePath();
-        try (BufferedReader br = new BufferedReader(new FileReader(input.toFile()));
-             BufferedWriter bw = new BufferedWriter(new FileWriter(output.toFile()));
-             FileReporter reporter = new FileReporter(bw)){
-                List<Token> tokens = Lexer.scan(br, reporter);
-                if (tokens == null){
-                    return;
-                }
-                Element bTokens = Parser.parse(tokens, reporter);
-                if (bTokens == null){
-                    return;
-                }
-            JsonConverter converter = new JsonConverter();
-            bw.write(converter.json(bTokens));
+        if (!args[0].equals(STANDARD_STREAM) && Files.isDirectory(Paths.get(args[0]))){
+            convertDirectory(Paths.get(args[0]).toAbsolutePath(), Paths.get(args[1]).toAbsolutePath());
+            return;
+        }
+        convert(args[0], args[1]);
+    }
+
+    /**
+     * Streams the input into JSON without building an element tree, so memory use depends
+     * only on the nesting depth. {@code -} stands for stdin or stdout, and names ending with
+     * {@code .gz} are read or written gzip-compressed. The JSON goes to a temporary file that
+     * replaces the output only when the input is valid; otherwise the output gets the errors.
+     * When writing to stdout, errors go to stderr.
+     */
+    static void convert(String input, String output) throws IOException {
+        if (input.equals(STANDARD_STREAM) || input.endsWith(GZIP_SUFFIX)) {
+            try (InputStream in = openInput(input)) {
+                convert(ByteInput.of(in), output);
+            }
+        } else {
+            try (FileChannel channel = FileChannel.open(Paths.get(input), StandardOpenOption.READ)) {
+                convert(ByteInput.map(channel), output);
+            }
+        }
+    }
+
+    private static void convert(ByteInput in, String output) throws IOException {
+        if (output.equals(STANDARD_STREAM)) {
+            BufferedWriter bw = openOutput(System.out, output);
+            convert(in, bw, new ConsoleReporter());
+            bw.flush();
+            return;
+        }
+        Path target = Paths.get(output).toAbsolutePath();
+        Path partial = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".part");
+        CollectingReporter reporter = new CollectingReporter();
+        try {
+            try (BufferedWriter bw = openOutput(Files.newOutputStream(partial), output)) {
+                convert(in, bw, reporter);
+            }
+            if (!reporter.hasError()) {
+                Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING);
+                return;
+            }
+        } finally {
+            Files.deleteIfExists(partial);
         }
+        try (BufferedWriter bw = openOutput(Files.newOutputStream(target), output)) {
+            for (String message : reporter.messages()) {
+                bw.write(message);
+            }
+        }
+    }
+
+    private static void convert(ByteInput in, Writer out, ErrorReporter reporter) throws IOException {
+        BencodeReader reader = new BencodeReader(in, reporter);
+        try {
+            new JsonConverter().json(reader, out);
+            if (reader.event() == Event.EOF) {
+                reporter.report(ErrorKind.SYNTAX, "Empty input");
+            } else {
+                reader.expectEnd();
+            }
+        } catch (ParserException e) {
+            e.reportTo(reporter);
+        }
+    }
+
+    private static InputStream openInput(String input) throws IOException {
+        InputStream in = input.equals(STANDARD_STREAM) ? System.in : Files.newInputStream(Paths.get(input));
+        return input.endsWith(GZIP_SUFFIX) ? new GZIPInputStream(in, BUFFER_SIZE) : in;
+    }
+
+    private static BufferedWriter openOutput(OutputStream out, String output) throws IOException {
+        if (output.endsWith(GZIP_SUFFIX)) out = new GZIPOutputStream(out, BUFFER_SIZE);
+        return new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    /**
+     * Converts every file of the directory into {@code <name>.json} in the output directory.
+     * Errors of a file are written into its output instead of the JSON.
+     */
+    private static void convertDirectory(Path input, Path output) throws IOException {
+        List<Path> files;
+        try (Stream<Path> list = Files.list(input)) {
+            files = list.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+        }
+        Files.createDirectories(output);
+        files.parallelStream().forEach(file -> {
+            BencodeBatch.Result result = BencodeBatch.parse(file);
+            try (BufferedWriter bw = Files.newBufferedWriter(output.resolve(file.getFileName() + ".json"))) {
+                if (result.isValid()) {
+                    new JsonConverter().json(result.element(), bw);
+                } else {
+                    for (String error : result.errors()) {
+                        bw.write(error);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
     }
 }
@@ -0,0 +1,7 @@
+package com.github.plugatarev.bencode.binding;
+
+public class BindingException extends RuntimeException {
+    BindingException(String message) {
+        super(message);
+    }
+}
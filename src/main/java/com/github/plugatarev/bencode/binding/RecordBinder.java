@@ -0,0 +1,217 @@
+package com.github.plugatarev.bencode.binding;
+
+import com.github.plugatarev.bencode.error.SilentReporter;
+import com.github.plugatarev.bencode.lexer.ByteInput;
+import com.github.plugatarev.bencode.parser.BencodeReader;
+import com.github.plugatarev.bencode.parser.Element;
+import com.github.plugatarev.bencode.parser.Event;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.RecordComponent;
+import java.lang.reflect.Type;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds records straight from {@link BencodeReader} events. A record is read from a
+ * dictionary whose keys are the component names; unknown keys are skipped without
+ * being read and missing components get null, zero or false.
+ * <p>
+ * Supported component types: {@code String} (UTF-8), {@code byte[]}, {@link Element.BString},
+ * {@code long}, {@code int}, {@code boolean} (an integer 0 or 1), {@link BigInteger},
+ * {@link Element}, other records, {@code List} and {@code Map} with {@code String} keys of these.
+ * The decoder of a record class is built once with reflection and then works through method handles.
+ */
+public final class RecordBinder {
+    private static final ClassValue<RecordDecoder> DECODERS = new ClassValue<>() {
+        @Override
+        protected RecordDecoder computeValue(Class<?> type) {
+            return new RecordDecoder(type);
+        }
+    };
+
+    private RecordBinder() {
+    }
+
+    /**
+     * Decodes the only value of the buffer.
+     *
+     * @throws com.github.plugatarev.bencode.parser.ParserException on malformed input or trailing data
+     * @throws BindingException if a value does not fit its component
+     */
+    public static <T extends Record> T decode(ByteBuffer buffer, Class<T> type) {
+        BencodeReader reader = new BencodeReader(ByteInput.wrap(buffer), SilentReporter.INSTANCE);
+        T value = type.cast(decoder(type).read(reader, reader.next()));
+        reader.expectEnd();
+        return value;
+    }
+
+    /**
+     * Reads the next value of the reader as a record.
+     */
+    public static <T extends Record> T decode(BencodeReader reader, Class<T> type) {
+        return type.cast(decoder(type).read(reader, reader.next()));
+    }
+
+    private static RecordDecoder decoder(Class<?> type) {
+        if (!type.isRecord()) throw new BindingException(type.getName() + " is not a record");
+        return DECODERS.get(type);
+    }
+
+    /**
+     * Reads one value whose first event was already taken from the reader.
+     */
+    private interface ValueDecoder {
+        Object read(BencodeReader reader, Event event);
+    }
+
+    private static final class RecordDecoder implements ValueDecoder {
+        private final Class<?> type;
+        private final Map<Element.BString, Integer> indices = new HashMap<>();
+        private final ValueDecoder[] components;
+        private final Object[] defaults;
+        private final MethodHandle constructor;
+
+        RecordDecoder(Class<?> type) {
+            this.type = type;
+            RecordComponent[] recordComponents = type.getRecordComponents();
+            components = new ValueDecoder[recordComponents.length];
+            defaults = new Object[recordComponents.length];
+            Class<?>[] types = new Class<?>[recordComponents.length];
+            for (int i = 0; i < recordComponents.length; i++) {
+                RecordComponent component = recordComponents[i];
+                indices.put(new Element.BString(component.getName()), i);
+                components[i] = valueDecoder(component.getGenericType());
+                defaults[i] = defaultValue(component.getType());
+                types[i] = component.getType();
+            }
+            try {
+                Constructor<?> canonical = type.getDeclaredConstructor(types);
+                canonical.setAccessible(true);
+                constructor = MethodHandles.lookup().unreflectConstructor(canonical)
+                        .asSpreader(Object[].class, types.length)
+                        .asType(MethodType.methodType(Object.class, Object[].class));
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                throw new BindingException("Cannot bind " + type.getName() + ": " + e.getMessage());
+            }
+        }
+
+        @Override
+        public Object read(BencodeReader reader, Event event) {
+            expect(event, Event.START_DICT, type);
+            Object[] args = defaults.clone();
+            while (reader.next() == Event.KEY) {
+                Integer index = indices.get(reader.stringValue());
+                if (index == null) {
+                    reader.skipValue();
+                    continue;
+                }
+                args[index] = components[index].read(reader, reader.next());
+            }
+            try {
+                return (Object) constructor.invokeExact(args);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new BindingException("Cannot create " + type.getName() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private static ValueDecoder valueDecoder(Type type) {
+        if (type instanceof ParameterizedType parameterized) {
+            Type raw = parameterized.getRawType();
+            Type[] args = parameterized.getActualTypeArguments();
+            if (raw == List.class) return listDecoder(valueDecoder(args[0]));
+            if (raw == Map.class && args[0] == String.class) return mapDecoder(valueDecoder(args[1]));
+        } else if (type instanceof Class<?> c) {
+            if (c == String.class) return (r, e) -> string(r, e, c).asString(StandardCharsets.UTF_8);
+            if (c == byte[].class) return (r, e) -> string(r, e, c).toByteArray();
+            if (c == Element.BString.class) return (r, e) -> string(r, e, c);
+            if (c == long.class || c == Long.class) return (r, e) -> integer(r, e, c, Long.MIN_VALUE, Long.MAX_VALUE);
+            if (c == int.class || c == Integer.class) {
+                return (r, e) -> (int) integer(r, e, c, Integer.MIN_VALUE, Integer.MAX_VALUE);
+            }
+            if (c == boolean.class || c == Boolean.class) return (r, e) -> integer(r, e, c).bigIntegerValue().signum() != 0;
+            if (c == BigInteger.class) return (r, e) -> integer(r, e, c).bigIntegerValue();
+            if (c == Element.class) return RecordBinder::element;
+            if (c.isRecord()) return (r, e) -> DECODERS.get(c).read(r, e);
+        }
+        throw new BindingException("Unsupported type " + type.getTypeName());
+    }
+
+    private static ValueDecoder listDecoder(ValueDecoder members) {
+        return (reader, event) -> {
+            expect(event, Event.START_LIST, List.class);
+            List<Object> list = new ArrayList<>();
+            Event next;
+            while ((next = reader.next()) != Event.END) {
+                list.add(members.read(reader, next));
+            }
+            return list;
+        };
+    }
+
+    private static ValueDecoder mapDecoder(ValueDecoder values) {
+        return (reader, event) -> {
+            expect(event, Event.START_DICT, Map.class);
+            Map<String, Object> map = new LinkedHashMap<>();
+            while (reader.next() == Event.KEY) {
+                String key = reader.stringValue().asString(StandardCharsets.UTF_8);
+                map.put(key, values.read(reader, reader.next()));
+            }
+            return map;
+        };
+    }
+
+    private static Element element(BencodeReader reader, Event event) {
+        return switch (event) {
+            case STRING, INTEGER, START_LIST, START_DICT -> reader.readValue();
+            default -> throw new BindingException("Expected a value, found " + event);
+        };
+    }
+
+    private static Element.BString string(BencodeReader reader, Event event, Class<?> type) {
+        expect(event, Event.STRING, type);
+        return reader.stringValue();
+    }
+
+    private static Element.BInteger integer(BencodeReader reader, Event event, Class<?> type) {
+        expect(event, Event.INTEGER, type);
+        return reader.bigValue() != null ?
+                new Element.BInteger(reader.bigValue()) :
+                new Element.BInteger(reader.longValue());
+    }
+
+    private static long integer(BencodeReader reader, Event event, Class<?> type, long min, long max) {
+        expect(event, Event.INTEGER, type);
+        if (reader.bigValue() != null || reader.longValue() < min || reader.longValue() > max) {
+            Object value = reader.bigValue() != null ? reader.bigValue() : reader.longValue();
+            throw new BindingException("Integer " + value + " does not fit " + type.getSimpleName());
+        }
+        return reader.longValue();
+    }
+
+    private static void expect(Event actual, Event expected, Class<?> type) {
+        if (actual != expected) {
+            throw new BindingException("Expected " + expected + " for " + type.getSimpleName() + ", found " + actual);
+        }
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (type == long.class) return 0L;
+        if (type == int.class) return 0;
+        if (type == boolean.class) return false;
+        return null;
+    }
+}
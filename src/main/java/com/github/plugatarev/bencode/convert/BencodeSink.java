@@ -0,0 +1,162 @@
+package com.github.plugatarev.bencode.convert;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Writes events as bencode. Keys may come in any order: the values of an open dictionary
+ * are collected in a {@link SpillBuffer} and written out in canonical key order when it ends.
+ * Only the keys stay in memory; values past the memory limit of a dictionary go to a
+ * temporary file. Duplicate keys end with a {@link ConversionException}.
+ * <p>
+ * Output goes straight to the stream, so a buffered stream is best.
+ */
+public final class BencodeSink implements EventSink, Closeable {
+    public static final int DEFAULT_MEMORY_LIMIT = 1 << 20;
+
+    private static final class Dictionary {
+        private final SpillBuffer values;
+        private final List<byte[]> keys = new ArrayList<>();
+        private long[] offsets = new long[8];
+
+        private Dictionary(int memoryLimit) {
+            this.values = new SpillBuffer(memoryLimit);
+        }
+    }
+
+    private final OutputStream out;
+    private final int memoryLimit;
+    private final Deque<Dictionary> dictionaries = new ArrayDeque<>();
+    private boolean[] isDictionary = new boolean[8];
+    private int depth;
+
+    public BencodeSink(OutputStream out) {
+        this(out, DEFAULT_MEMORY_LIMIT);
+    }
+
+    /**
+     * @param memoryLimit bytes of values every open dictionary keeps in memory
+     */
+    public BencodeSink(OutputStream out, int memoryLimit) {
+        this.out = out;
+        this.memoryLimit = memoryLimit;
+    }
+
+    @Override
+    public void beginDictionary() {
+        push(true);
+        dictionaries.push(new Dictionary(memoryLimit));
+    }
+
+    @Override
+    public void beginList() throws IOException {
+        target().write('l');
+        push(false);
+    }
+
+    @Override
+    public void key(ByteBuffer key) {
+        Dictionary dictionary = dictionaries.element();
+        int index = dictionary.keys.size();
+        if (index == dictionary.offsets.length) dictionary.offsets = Arrays.copyOf(dictionary.offsets, index * 2);
+        byte[] bytes = new byte[key.remaining()];
+        key.get(key.position(), bytes);
+        dictionary.keys.add(bytes);
+        dictionary.offsets[index] = dictionary.values.size();
+    }
+
+    @Override
+    public void string(ByteBuffer value) throws IOException {
+        OutputStream target = target();
+        writeLength(target, value.remaining());
+        SpillBuffer.write(target, value);
+    }
+
+    @Override
+    public void integer(long value) throws IOException {
+        writeInteger(target(), Long.toString(value));
+    }
+
+    @Override
+    public void integer(BigInteger value) throws IOException {
+        writeInteger(target(), value.toString());
+    }
+
+    @Override
+    public void end() throws IOException {
+        depth--;
+        if (!isDictionary[depth]) {
+            target().write('e');
+            return;
+        }
+        Dictionary dictionary = dictionaries.pop();
+        try {
+            writeSorted(dictionary, target());
+        } finally {
+            dictionary.values.close();
+        }
+    }
+
+    /**
+     * Deletes the temporary files of dictionaries that were not ended. The stream stays open.
+     */
+    @Override
+    public void close() throws IOException {
+        while (!dictionaries.isEmpty()) {
+            dictionaries.pop().values.close();
+        }
+        depth = 0;
+    }
+
+    private void writeSorted(Dictionary dictionary, OutputStream target) throws IOException {
+        int size = dictionary.keys.size();
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Arrays.compareUnsigned(dictionary.keys.get(a), dictionary.keys.get(b)));
+        target.write('d');
+        for (int i = 0; i < size; i++) {
+            int entry = order[i];
+            byte[] key = dictionary.keys.get(entry);
+            if (i > 0 && Arrays.equals(key, dictionary.keys.get(order[i - 1]))) {
+                throw new ConversionException("Duplicate key " + new String(key, StandardCharsets.UTF_8));
+            }
+            long from = dictionary.offsets[entry];
+            long to = entry + 1 < size ? dictionary.offsets[entry + 1] : dictionary.values.size();
+            writeLength(target, key.length);
+            target.write(key);
+            dictionary.values.copyTo(from, to - from, target);
+        }
+        target.write('e');
+    }
+
+    private OutputStream target() {
+        return dictionaries.isEmpty() ? out : dictionaries.element().values;
+    }
+
+    private void push(boolean dictionary) {
+        if (depth == isDictionary.length) isDictionary = Arrays.copyOf(isDictionary, depth * 2);
+        isDictionary[depth++] = dictionary;
+    }
+
+    private static void writeLength(OutputStream target, int length) throws IOException {
+        target.write(Integer.toString(length).getBytes(StandardCharsets.US_ASCII));
+        target.write(':');
+    }
+
+    private static void writeInteger(OutputStream target, String digits) throws IOException {
+        target.write('i');
+        target.write(digits.getBytes(StandardCharsets.US_ASCII));
+        target.write('e');
+    }
+}
@@ -0,0 +1,63 @@
+package com.github.plugatarev.bencode.convert;
+
+import com.github.plugatarev.bencode.parser.BencodeReader;
+import com.github.plugatarev.bencode.parser.Element;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Feeds bencode values into an {@link EventSink}.
+ */
+public final class BencodeSource {
+
+    private BencodeSource() {
+    }
+
+    /**
+     * Copies the next value of the reader without building an element tree.
+     */
+    public static void copy(BencodeReader reader, EventSink sink) throws IOException {
+        do {
+            switch (reader.next()) {
+                case START_DICT -> sink.beginDictionary();
+                case START_LIST -> sink.beginList();
+                case KEY -> sink.key(reader.stringValue().bytes());
+                case STRING -> sink.string(reader.stringValue().bytes());
+                case INTEGER -> {
+                    if (reader.bigValue() != null) sink.integer(reader.bigValue());
+                    else sink.integer(reader.longValue());
+                }
+                case END -> sink.end();
+                case EOF -> {
+                    return;
+                }
+            }
+        } while (reader.depth() > 0);
+    }
+
+    public static void copy(Element element, EventSink sink) throws IOException {
+        switch (element) {
+            case Element.BInteger bInteger -> {
+                if (bInteger.isLong()) sink.integer(bInteger.value());
+                else sink.integer(bInteger.big());
+            }
+            case Element.BString bString -> sink.string(bString.bytes());
+            case Element.BList bList -> {
+                sink.beginList();
+                for (Element member : bList.list()) {
+                    copy(member, sink);
+                }
+                sink.end();
+            }
+            case Element.BDictionary bDictionary -> {
+                sink.beginDictionary();
+                for (Map.Entry<Element.BString, Element> entry : bDictionary.dict().entrySet()) {
+                    sink.key(entry.getKey().bytes());
+                    copy(entry.getValue(), sink);
+                }
+                sink.end();
+            }
+        }
+    }
+}
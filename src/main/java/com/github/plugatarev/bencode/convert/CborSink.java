@@ -0,0 +1,106 @@
+package com.github.plugatarev.bencode.convert;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+
+/**
+ * Writes events as CBOR (RFC 8949). Containers use indefinite lengths, so nothing is
+ * buffered. Strings that are valid UTF-8 become text strings, others byte strings;
+ * integers beyond 64 bits become bignums (tags 2 and 3).
+ * <p>
+ * Output goes straight to the stream, so a buffered stream is best.
+ */
+public final class CborSink implements EventSink {
+    private static final int UNSIGNED = 0;
+    private static final int NEGATIVE = 1;
+    private static final int BYTES = 2;
+    private static final int TEXT = 3;
+    private static final int TAG = 6;
+    private static final int INDEFINITE_MAP = 0xBF;
+    private static final int INDEFINITE_ARRAY = 0x9F;
+    private static final int BREAK = 0xFF;
+
+    private final OutputStream out;
+
+    public CborSink(OutputStream out) {
+        this.out = out;
+    }
+
+    @Override
+    public void beginDictionary() throws IOException {
+        out.write(INDEFINITE_MAP);
+    }
+
+    @Override
+    public void beginList() throws IOException {
+        out.write(INDEFINITE_ARRAY);
+    }
+
+    @Override
+    public void key(ByteBuffer key) throws IOException {
+        string(key);
+    }
+
+    @Override
+    public void string(ByteBuffer value) throws IOException {
+        head(Utf8.isValid(value) ? TEXT : BYTES, value.remaining());
+        SpillBuffer.write(out, value);
+    }
+
+    @Override
+    public void integer(long value) throws IOException {
+        if (value >= 0) head(UNSIGNED, value);
+        else head(NEGATIVE, ~value);
+    }
+
+    @Override
+    public void integer(BigInteger value) throws IOException {
+        boolean negative = value.signum() < 0;
+        // a negative integer is encoded as -1 - value
+        BigInteger argument = negative ? value.not() : value;
+        if (argument.bitLength() <= Long.SIZE) {
+            head(negative ? NEGATIVE : UNSIGNED, argument.longValue());
+            return;
+        }
+        byte[] magnitude = argument.toByteArray();
+        int sign = magnitude[0] == 0 ? 1 : 0;
+        head(TAG, negative ? 3 : 2);
+        head(BYTES, magnitude.length - sign);
+        out.write(magnitude, sign, magnitude.length - sign);
+    }
+
+    @Override
+    public void end() throws IOException {
+        out.write(BREAK);
+    }
+
+    /**
+     * Writes the initial byte and the argument, which is read as unsigned.
+     */
+    private void head(int major, long argument) throws IOException {
+        int type = major << 5;
+        if (Long.compareUnsigned(argument, 24) < 0) {
+            out.write(type | (int) argument);
+        } else if (Long.compareUnsigned(argument, 0xFF) <= 0) {
+            out.write(type | 24);
+            out.write((int) argument);
+        } else if (Long.compareUnsigned(argument, 0xFFFF) <= 0) {
+            out.write(type | 25);
+            bigEndian(argument, 2);
+        } else if (Long.compareUnsigned(argument, 0xFFFFFFFFL) <= 0) {
+            out.write(type | 26);
+            bigEndian(argument, 4);
+        } else {
+            out.write(type | 27);
+            bigEndian(argument, 8);
+        }
+    }
+
+    private void bigEndian(long value, int bytes) throws IOException {
+        for (int shift = (bytes - 1) * 8; shift >= 0; shift -= 8) {
+            out.write((int) (value >>> shift));
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.github.plugatarev.bencode.convert;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+
+/**
+ * Reads one CBOR (RFC 8949) value into an {@link EventSink}. Definite and indefinite lengths
+ * are accepted; text and byte strings both become strings, {@code false} and {@code true}
+ * become 0 and 1, and bignums become integers. Other tags are ignored. Floats, {@code null}
+ * and {@code undefined} have no bencode form and end with a {@link ConversionException},
+ * as do map keys that are not strings.
+ */
+public final class CborSource {
+    private static final int BREAK = 0xFF;
+    private static final int INDEFINITE = 31;
+
+    private final DataInputStream in;
+    private final EventSink sink;
+
+    private CborSource(InputStream in, EventSink sink) {
+        this.in = new DataInputStream(new BufferedInputStream(in));
+        this.sink = sink;
+    }
+
+    /**
+     * The stream may be read past the end of the value.
+     */
+    public static void copy(InputStream in, EventSink sink) throws IOException {
+        CborSource source = new CborSource(in, sink);
+        source.value(source.in.readUnsignedByte());
+    }
+
+    private void value(int initial) throws IOException {
+        int major = initial >>> 5;
+        int info = initial & 0x1F;
+        switch (major) {
+            case 0 -> {
+                long n = argument(info);
+                if (n >= 0) sink.integer(n);
+                else sink.integer(unsigned(n));
+            }
+            case 1 -> {
+                long n = argument(info);
+                if (n >= 0) sink.integer(-1 - n);
+                else sink.integer(unsigned(n).not());
+            }
+            case 2, 3 -> sink.string(ByteBuffer.wrap(string(major, info)));
+            case 4 -> {
+                sink.beginList();
+                if (info == INDEFINITE) {
+                    int next;
+                    while ((next = in.readUnsignedByte()) != BREAK) {
+                        value(next);
+                    }
+                } else {
+                    for (long i = count(info); i > 0; i--) {
+                        value(in.readUnsignedByte());
+                    }
+                }
+                sink.end();
+            }
+            case 5 -> {
+                sink.beginDictionary();
+                if (info == INDEFINITE) {
+                    int next;
+                    while ((next = in.readUnsignedByte()) != BREAK) {
+                        entry(next);
+                    }
+                } else {
+                    for (long i = count(info); i > 0; i--) {
+                        entry(in.readUnsignedByte());
+                    }
+                }
+                sink.end();
+            }
+            case 6 -> tagged(argument(info));
+            default -> simple(info);
+        }
+    }
+
+    private void entry(int initial) throws IOException {
+        int major = initial >>> 5;
+        if (major != 2 && major != 3) throw new ConversionException("Map key of major type " + major + " is not a string");
+        sink.key(ByteBuffer.wrap(string(major, initial & 0x1F)));
+        value(in.readUnsignedByte());
+    }
+
+    private void tagged(long tag) throws IOException {
+        int initial = in.readUnsignedByte();
+        if (tag != 2 && tag != 3) {
+            value(initial);
+            return;
+        }
+        if (initial >>> 5 != 2) throw new ConversionException("Bignum content is not a byte string");
+        BigInteger magnitude = new BigInteger(1, string(2, initial & 0x1F));
+        sink.integer(tag == 2 ? magnitude : magnitude.not());
+    }
+
+    private void simple(int info) throws IOException {
+        switch (info) {
+            case 20 -> sink.integer(0);
+            case 21 -> sink.integer(1);
+            case 22 -> throw new ConversionException("null has no bencode form");
+            case 25, 26, 27 -> throw new ConversionException("Float has no bencode form");
+            default -> throw new ConversionException("Simple value " + info + " has no bencode form");
+        }
+    }
+
+    private byte[] string(int major, int info) throws IOException {
+        if (info != INDEFINITE) return bytes(argument(info));
+        ByteArrayOutputStream chunks = new ByteArrayOutputStream();
+        int next;
+        while ((next = in.readUnsignedByte()) != BREAK) {
+            if (next >>> 5 != major || (next & 0x1F) == INDEFINITE) {
+                throw new ConversionException("Malformed chunk of an indefinite-length string");
+            }
+            chunks.write(bytes(argument(next & 0x1F)));
+        }
+        return chunks.toByteArray();
+    }
+
+    private byte[] bytes(long length) throws IOException {
+        if (length < 0 || length > Integer.MAX_VALUE - 8) throw new ConversionException("String of " + Long.toUnsignedString(length) + " bytes is too long");
+        byte[] bytes = in.readNBytes((int) length);
+        if (bytes.length != length) throw new EOFException();
+        return bytes;
+    }
+
+    private long count(int info) throws IOException {
+        long count = argument(info);
+        if (count < 0) throw new ConversionException("Container of " + Long.toUnsignedString(count) + " items is too large");
+        return count;
+    }
+
+    /**
+     * @return the argument of the initial byte as an unsigned value
+     */
+    private long argument(int info) throws IOException {
+        return switch (info) {
+            case 24 -> in.readUnsignedByte();
+            case 25 -> in.readUnsignedShort();
+            case 26 -> in.readInt() & 0xFFFFFFFFL;
+            case 27 -> in.readLong();
+            default -> {
+                if (info < 24) yield info;
+                throw new ConversionException("Unexpected additional information " + info);
+            }
+        };
+    }
+
+    private static BigInteger unsigned(long value) {
+        return new BigInteger(Long.toUnsignedString(value));
+    }
+}
@@ -0,0 +1,11 @@
+package com.github.plugatarev.bencode.convert;
+
+/**
+ * Input that is malformed or holds a value with no counterpart in the target format,
+ * such as a JSON {@code null} or a float.
+ */
+public class ConversionException extends RuntimeException {
+    ConversionException(String message) {
+        super(message);
+    }
+}
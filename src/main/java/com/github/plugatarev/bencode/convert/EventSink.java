@@ -0,0 +1,28 @@
+package com.github.plugatarev.bencode.convert;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+
+/**
+ * Receiver of a value as a stream of events, shared by all converters. A dictionary is
+ * {@link #beginDictionary}, then a {@link #key} before every value, then {@link #end};
+ * a list is {@link #beginList}, its members and {@link #end}.
+ * <p>
+ * Byte buffers are read from their position to their limit and are only valid during the call.
+ */
+public interface EventSink {
+    void beginDictionary() throws IOException;
+
+    void beginList() throws IOException;
+
+    void key(ByteBuffer key) throws IOException;
+
+    void string(ByteBuffer value) throws IOException;
+
+    void integer(long value) throws IOException;
+
+    void integer(BigInteger value) throws IOException;
+
+    void end() throws IOException;
+}
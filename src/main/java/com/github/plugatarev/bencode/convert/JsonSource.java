@@ -0,0 +1,209 @@
+package com.github.plugatarev.bencode.convert;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads one JSON value into an {@link EventSink}. Strings become UTF-8, {@code false} and
+ * {@code true} become 0 and 1, and numbers have to be integral ({@code 1e3} is fine).
+ * {@code null} and fractions have no bencode form and end with a {@link ConversionException},
+ * like malformed input does.
+ */
+public final class JsonSource {
+    private static final int BUFFER_SIZE = 8192;
+    /**
+     * Largest number of digits an exponent may expand a number to, so {@code 1e999999999}
+     * is rejected instead of being expanded in memory.
+     */
+    private static final int MAX_DIGITS = 10_000;
+
+    private final Reader in;
+    private final EventSink sink;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private final StringBuilder text = new StringBuilder();
+    private int pos;
+    private int limit;
+    private long offset;
+
+    private JsonSource(Reader in, EventSink sink) {
+        this.in = in;
+        this.sink = sink;
+    }
+
+    /**
+     * Reads the whole input, which has to hold exactly one value.
+     */
+    public static void copy(Reader in, EventSink sink) throws IOException {
+        JsonSource source = new JsonSource(in, sink);
+        source.value(source.next());
+        if (source.next() != -1) throw source.error("Trailing data");
+    }
+
+    private void value(int c) throws IOException {
+        switch (c) {
+            case '{' -> object();
+            case '[' -> array();
+            case '"' -> sink.string(string());
+            case 't' -> {
+                literal("rue");
+                sink.integer(1);
+            }
+            case 'f' -> {
+                literal("alse");
+                sink.integer(0);
+            }
+            case 'n' -> {
+                literal("ull");
+                throw error("null has no bencode form");
+            }
+            default -> {
+                if (c != '-' && !isDigit(c)) throw error(c == -1 ? "Unexpected end of input" : "Unexpected character '" + (char) c + "'");
+                number(c);
+            }
+        }
+    }
+
+    private void object() throws IOException {
+        sink.beginDictionary();
+        int c = next();
+        if (c != '}') {
+            while (true) {
+                if (c != '"') throw error("Expected a key");
+                sink.key(string());
+                if (next() != ':') throw error("Expected ':'");
+                value(next());
+                c = next();
+                if (c == '}') break;
+                if (c != ',') throw error("Expected ',' or '}'");
+                c = next();
+            }
+        }
+        sink.end();
+    }
+
+    private void array() throws IOException {
+        sink.beginList();
+        int c = next();
+        if (c != ']') {
+            while (true) {
+                value(c);
+                c = next();
+                if (c == ']') break;
+                if (c != ',') throw error("Expected ',' or ']'");
+                c = next();
+            }
+        }
+        sink.end();
+    }
+
+    /**
+     * Reads a string after its opening quote.
+     */
+    private ByteBuffer string() throws IOException {
+        text.setLength(0);
+        while (true) {
+            int c = read();
+            if (c == '"') break;
+            if (c == -1) throw error("Unterminated string");
+            if (c < 0x20) throw error("Control character in a string");
+            if (c != '\\') {
+                text.append((char) c);
+                continue;
+            }
+            int escaped = read();
+            switch (escaped) {
+                case '"', '\\', '/' -> text.append((char) escaped);
+                case 'b' -> text.append('\b');
+                case 'f' -> text.append('\f');
+                case 'n' -> text.append('\n');
+                case 'r' -> text.append('\r');
+                case 't' -> text.append('\t');
+                case 'u' -> {
+                    int code = 0;
+                    for (int i = 0; i < 4; i++) {
+                        int digit = Character.digit(read(), 16);
+                        if (digit < 0) throw error("Malformed \\u escape");
+                        code = code << 4 | digit;
+                    }
+                    text.append((char) code);
+                }
+                default -> throw error("Unknown escape");
+            }
+        }
+        return ByteBuffer.wrap(text.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void number(int first) throws IOException {
+        text.setLength(0);
+        text.append((char) first);
+        boolean integral = true;
+        int c;
+        while ((c = peek()) != -1 && (isDigit(c) || c == '.' || c == 'e' || c == 'E' || c == '+' || c == '-')) {
+            integral &= isDigit(c);
+            text.append((char) read());
+        }
+        try {
+            BigInteger value = integral ? new BigInteger(text.toString()) : integral(new BigDecimal(text.toString()));
+            if (value.bitLength() < Long.SIZE) sink.integer(value.longValue());
+            else sink.integer(value);
+        } catch (NumberFormatException e) {
+            throw error("Malformed number " + text);
+        }
+    }
+
+    private BigInteger integral(BigDecimal decimal) {
+        if (decimal.signum() == 0) return BigInteger.ZERO;
+        decimal = decimal.stripTrailingZeros();
+        if (decimal.scale() > 0) throw error("Fraction " + text + " has no bencode form");
+        if ((long) decimal.precision() - decimal.scale() > MAX_DIGITS) throw error("Number " + text + " is too large");
+        return decimal.toBigInteger();
+    }
+
+    private void literal(String rest) throws IOException {
+        for (int i = 0; i < rest.length(); i++) {
+            if (read() != rest.charAt(i)) throw error("Unknown literal");
+        }
+    }
+
+    /**
+     * @return next character that is not whitespace, or -1 at the end of input
+     */
+    private int next() throws IOException {
+        int c;
+        do {
+            c = read();
+        } while (c == ' ' || c == '\t' || c == '\n' || c == '\r');
+        return c;
+    }
+
+    private int read() throws IOException {
+        int c = peek();
+        if (c != -1) {
+            pos++;
+            offset++;
+        }
+        return c;
+    }
+
+    private int peek() throws IOException {
+        if (pos == limit) {
+            int n = in.read(buffer);
+            if (n <= 0) return -1;
+            pos = 0;
+            limit = n;
+        }
+        return buffer[pos];
+    }
+
+    private ConversionException error(String message) {
+        return new ConversionException(message + " at " + offset);
+    }
+
+    private static boolean isDigit(int c) {
+        return c >= '0' && c <= '9';
+    }
+}
@@ -0,0 +1,167 @@
+package com.github.plugatarev.bencode.convert;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Writes events as MessagePack. A map or array header carries the number of members, so
+ * the content of every open container is collected in a {@link SpillBuffer} until it ends;
+ * past the memory limit it goes to a temporary file. Strings that are valid UTF-8 become
+ * str, others bin. Integers below -2^63 or above 2^64 - 1 end with a {@link ConversionException}.
+ * <p>
+ * Output goes straight to the stream, so a buffered stream is best.
+ */
+public final class MsgPackSink implements EventSink, Closeable {
+    public static final int DEFAULT_MEMORY_LIMIT = 1 << 20;
+
+    private static final class Container {
+        private final boolean map;
+        private final SpillBuffer content;
+        private long count;
+
+        private Container(boolean map, int memoryLimit) {
+            this.map = map;
+            this.content = new SpillBuffer(memoryLimit);
+        }
+    }
+
+    private final OutputStream out;
+    private final int memoryLimit;
+    private final Deque<Container> containers = new ArrayDeque<>();
+
+    public MsgPackSink(OutputStream out) {
+        this(out, DEFAULT_MEMORY_LIMIT);
+    }
+
+    /**
+     * @param memoryLimit bytes every open container keeps in memory
+     */
+    public MsgPackSink(OutputStream out, int memoryLimit) {
+        this.out = out;
+        this.memoryLimit = memoryLimit;
+    }
+
+    @Override
+    public void beginDictionary() {
+        member();
+        containers.push(new Container(true, memoryLimit));
+    }
+
+    @Override
+    public void beginList() {
+        member();
+        containers.push(new Container(false, memoryLimit));
+    }
+
+    @Override
+    public void key(ByteBuffer key) throws IOException {
+        containers.element().count++;
+        write(target(), key);
+    }
+
+    @Override
+    public void string(ByteBuffer value) throws IOException {
+        member();
+        write(target(), value);
+    }
+
+    @Override
+    public void integer(long value) throws IOException {
+        member();
+        OutputStream target = target();
+        if (value >= -32 && value <= 0x7F) {
+            target.write((int) value);
+        } else if (value > 0) {
+            if (value <= 0xFF) header(target, 0xCC, value, 1);
+            else if (value <= 0xFFFF) header(target, 0xCD, value, 2);
+            else if (value <= 0xFFFFFFFFL) header(target, 0xCE, value, 4);
+            else header(target, 0xCF, value, 8);
+        } else {
+            if (value >= Byte.MIN_VALUE) header(target, 0xD0, value, 1);
+            else if (value >= Short.MIN_VALUE) header(target, 0xD1, value, 2);
+            else if (value >= Integer.MIN_VALUE) header(target, 0xD2, value, 4);
+            else header(target, 0xD3, value, 8);
+        }
+    }
+
+    @Override
+    public void integer(BigInteger value) throws IOException {
+        if (value.bitLength() < Long.SIZE) {
+            integer(value.longValue());
+            return;
+        }
+        if (value.signum() < 0 || value.bitLength() > Long.SIZE) {
+            throw new ConversionException("Integer " + value + " does not fit in MessagePack");
+        }
+        member();
+        header(target(), 0xCF, value.longValue(), 8);
+    }
+
+    @Override
+    public void end() throws IOException {
+        Container container = containers.pop();
+        try (SpillBuffer content = container.content) {
+            OutputStream target = target();
+            long count = container.count;
+            if (count < 16) {
+                target.write((container.map ? 0x80 : 0x90) | (int) count);
+            } else if (count <= 0xFFFF) {
+                header(target, container.map ? 0xDE : 0xDC, count, 2);
+            } else if (count <= 0xFFFFFFFFL) {
+                header(target, container.map ? 0xDF : 0xDD, count, 4);
+            } else {
+                throw new ConversionException("Container of " + count + " members does not fit in MessagePack");
+            }
+            content.copyTo(target);
+        }
+    }
+
+    /**
+     * Deletes the temporary files of containers that were not ended. The stream stays open.
+     */
+    @Override
+    public void close() throws IOException {
+        while (!containers.isEmpty()) {
+            containers.pop().content.close();
+        }
+    }
+
+    private void member() {
+        Container container = containers.peek();
+        if (container != null && !container.map) container.count++;
+    }
+
+    private OutputStream target() {
+        return containers.isEmpty() ? out : containers.element().content;
+    }
+
+    private static void write(OutputStream target, ByteBuffer bytes) throws IOException {
+        int length = bytes.remaining();
+        if (Utf8.isValid(bytes)) {
+            if (length < 32) target.write(0xA0 | length);
+            else if (length <= 0xFF) header(target, 0xD9, length, 1);
+            else if (length <= 0xFFFF) header(target, 0xDA, length, 2);
+            else header(target, 0xDB, length, 4);
+        } else {
+            if (length <= 0xFF) header(target, 0xC4, length, 1);
+            else if (length <= 0xFFFF) header(target, 0xC5, length, 2);
+            else header(target, 0xC6, length, 4);
+        }
+        SpillBuffer.write(target, bytes);
+    }
+
+    /**
+     * Writes the type byte and the low {@code bytes} bytes of the value in big-endian order.
+     */
+    private static void header(OutputStream target, int type, long value, int bytes) throws IOException {
+        target.write(type);
+        for (int shift = (bytes - 1) * 8; shift >= 0; shift -= 8) {
+            target.write((int) (value >>> shift));
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.github.plugatarev.bencode.convert;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+
+/**
+ * Reads one MessagePack value into an {@link EventSink}. str and bin both become strings,
+ * {@code false} and {@code true} become 0 and 1. nil, floats and extension types have no
+ * bencode form and end with a {@link ConversionException}, as do map keys that are not strings.
+ */
+public final class MsgPackSource {
+    private final DataInputStream in;
+    private final EventSink sink;
+
+    private MsgPackSource(InputStream in, EventSink sink) {
+        this.in = new DataInputStream(new BufferedInputStream(in));
+        this.sink = sink;
+    }
+
+    /**
+     * The stream may be read past the end of the value.
+     */
+    public static void copy(InputStream in, EventSink sink) throws IOException {
+        MsgPackSource source = new MsgPackSource(in, sink);
+        source.value(source.in.readUnsignedByte());
+    }
+
+    private void value(int type) throws IOException {
+        byte[] string = string(type);
+        if (string != null) {
+            sink.string(ByteBuffer.wrap(string));
+            return;
+        }
+        if (type <= 0x7F || type >= 0xE0) {
+            sink.integer((byte) type);
+            return;
+        }
+        if (type <= 0x8F) {
+            map(type & 0x0F);
+            return;
+        }
+        if (type <= 0x9F) {
+            array(type & 0x0F);
+            return;
+        }
+        switch (type) {
+            case 0xC2 -> sink.integer(0);
+            case 0xC3 -> sink.integer(1);
+            case 0xCC -> sink.integer(in.readUnsignedByte());
+            case 0xCD -> sink.integer(in.readUnsignedShort());
+            case 0xCE -> sink.integer(in.readInt() & 0xFFFFFFFFL);
+            case 0xCF -> {
+                long value = in.readLong();
+                if (value >= 0) sink.integer(value);
+                else sink.integer(new BigInteger(Long.toUnsignedString(value)));
+            }
+            case 0xD0 -> sink.integer(in.readByte());
+            case 0xD1 -> sink.integer(in.readShort());
+            case 0xD2 -> sink.integer(in.readInt());
+            case 0xD3 -> sink.integer(in.readLong());
+            case 0xDC -> array(in.readUnsignedShort());
+            case 0xDD -> array(in.readInt() & 0xFFFFFFFFL);
+            case 0xDE -> map(in.readUnsignedShort());
+            case 0xDF -> map(in.readInt() & 0xFFFFFFFFL);
+            default -> throw new ConversionException(String.format("MessagePack type 0x%02x has no bencode form", type));
+        }
+    }
+
+    private void array(long count) throws IOException {
+        sink.beginList();
+        for (long i = 0; i < count; i++) {
+            value(in.readUnsignedByte());
+        }
+        sink.end();
+    }
+
+    private void map(long count) throws IOException {
+        sink.beginDictionary();
+        for (long i = 0; i < count; i++) {
+            int type = in.readUnsignedByte();
+            byte[] key = string(type);
+            if (key == null) throw new ConversionException(String.format("Map key of type 0x%02x is not a string", type));
+            sink.key(ByteBuffer.wrap(key));
+            value(in.readUnsignedByte());
+        }
+        sink.end();
+    }
+
+    /**
+     * @return payload of a str or bin value, or null if the type is not one of them
+     */
+    private byte[] string(int type) throws IOException {
+        if (type >= 0xA0 && type <= 0xBF) return bytes(type & 0x1F);
+        return switch (type) {
+            case 0xC4, 0xD9 -> bytes(in.readUnsignedByte());
+            case 0xC5, 0xDA -> bytes(in.readUnsignedShort());
+            case 0xC6, 0xDB -> bytes(in.readInt() & 0xFFFFFFFFL);
+            default -> null;
+        };
+    }
+
+    private byte[] bytes(long length) throws IOException {
+        if (length > Integer.MAX_VALUE - 8) throw new ConversionException("String of " + length + " bytes is too long");
+        byte[] bytes = in.readNBytes((int) length);
+        if (bytes.length != length) throw new EOFException();
+        return bytes;
+    }
+}
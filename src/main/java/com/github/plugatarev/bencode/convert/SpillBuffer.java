@@ -0,0 +1,114 @@
+package com.github.plugatarev.bencode.convert;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Byte buffer that keeps up to a limit in memory and moves its bytes into a temporary file
+ * once it grows past it. The file is deleted on close.
+ */
+final class SpillBuffer extends OutputStream {
+    private static final int INITIAL_SIZE = 256;
+    private static final int COPY_CHUNK = 8192;
+
+    private final int limit;
+    private byte[] memory = new byte[INITIAL_SIZE];
+    private int count;
+    private FileChannel file;
+    private long flushed;
+
+    SpillBuffer(int limit) {
+        this.limit = Math.max(limit, INITIAL_SIZE);
+    }
+
+    long size() {
+        return flushed + count;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        if (count == memory.length) makeRoom();
+        memory[count++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        while (len > 0) {
+            if (count == memory.length) makeRoom();
+            int n = Math.min(len, memory.length - count);
+            System.arraycopy(b, off, memory, count, n);
+            count += n;
+            off += n;
+            len -= n;
+        }
+    }
+
+    /**
+     * Copies {@code length} bytes starting at {@code from} into the stream.
+     */
+    void copyTo(long from, long length, OutputStream out) throws IOException {
+        long end = from + length;
+        if (from < flushed) {
+            byte[] chunk = new byte[COPY_CHUNK];
+            long fileEnd = Math.min(end, flushed);
+            while (from < fileEnd) {
+                ByteBuffer read = ByteBuffer.wrap(chunk, 0, (int) Math.min(chunk.length, fileEnd - from));
+                while (read.hasRemaining()) {
+                    if (file.read(read, from + read.position()) < 0) throw new EOFException();
+                }
+                out.write(chunk, 0, read.position());
+                from += read.position();
+            }
+        }
+        if (from < end) out.write(memory, (int) (from - flushed), (int) (end - from));
+    }
+
+    void copyTo(OutputStream out) throws IOException {
+        copyTo(0, size(), out);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (file != null) file.close();
+        file = null;
+    }
+
+    private void makeRoom() throws IOException {
+        if (file == null && memory.length < limit) {
+            memory = Arrays.copyOf(memory, Math.min(limit, memory.length * 2));
+            return;
+        }
+        if (file == null) {
+            file = FileChannel.open(Files.createTempFile("bencode", ".spill"), StandardOpenOption.READ,
+                    StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE);
+        }
+        ByteBuffer data = ByteBuffer.wrap(memory, 0, count);
+        while (data.hasRemaining()) {
+            file.write(data, flushed + data.position());
+        }
+        flushed += count;
+        count = 0;
+    }
+
+    /**
+     * Writes the bytes from the position to the limit without moving them.
+     */
+    static void write(OutputStream out, ByteBuffer bytes) throws IOException {
+        if (bytes.hasArray()) {
+            out.write(bytes.array(), bytes.arrayOffset() + bytes.position(), bytes.remaining());
+            return;
+        }
+        byte[] chunk = new byte[Math.min(bytes.remaining(), COPY_CHUNK)];
+        for (int i = bytes.position(); i < bytes.limit(); i += chunk.length) {
+            int n = Math.min(chunk.length, bytes.limit() - i);
+            bytes.get(i, chunk, 0, n);
+            out.write(chunk, 0, n);
+        }
+    }
+}
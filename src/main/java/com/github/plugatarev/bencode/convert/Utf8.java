@@ -0,0 +1,51 @@
+package com.github.plugatarev.bencode.convert;
+
+import java.nio.ByteBuffer;
+
+public final class Utf8 {
+
+    private Utf8() {
+    }
+
+    /**
+     * @return true if the bytes from the position to the limit are well-formed UTF-8
+     */
+    public static boolean isValid(ByteBuffer bytes) {
+        int i = bytes.position();
+        int end = bytes.limit();
+        while (i < end) {
+            int b = bytes.get(i) & 0xFF;
+            if (b < 0x80) {
+                i++;
+                continue;
+            }
+            int n;
+            int min;
+            if (b >= 0xC2 && b <= 0xDF) {
+                n = 1;
+                min = 0x80;
+            } else if (b >= 0xE0 && b <= 0xEF) {
+                n = 2;
+                min = 0x800;
+            } else if (b >= 0xF0 && b <= 0xF4) {
+                n = 3;
+                min = 0x10000;
+            } else {
+                return false;
+            }
+            if (i + n >= end) return false;
+            int codePoint = b & (0x3F >> n);
+            for (int k = 1; k <= n; k++) {
+                int c = bytes.get(i + k) & 0xFF;
+                if ((c & 0xC0) != 0x80) return false;
+                codePoint = codePoint << 6 | c & 0x3F;
+            }
+            if (codePoint < min || codePoint > Character.MAX_CODE_POINT
+                    || codePoint >= Character.MIN_SURROGATE && codePoint <= Character.MAX_SURROGATE) {
+                return false;
+            }
+            i += n + 1;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,147 @@
+package com.github.plugatarev.bencode.error;
+
+import com.github.plugatarev.bencode.lexer.ByteInput;
+import com.github.plugatarev.bencode.lexer.LexerError;
+import com.github.plugatarev.bencode.lexer.TokenType;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Error as data: code, byte offset and tokens. The text is rendered by {@link #message()}
+ * on first call, so reporters that only count or reject pay nothing for it.
+ */
+public final class BencodeError {
+    public enum Code {
+        UNKNOWN_CHAR(ErrorKind.LEXICAL),
+        INCORRECT_NUMBER(ErrorKind.LEXICAL),
+        INCORRECT_STRING_LENGTH(ErrorKind.LEXICAL),
+        NUMBER_WITH_DEAD_ZEROS(ErrorKind.LEXICAL),
+        UNEXPECTED_TOKEN(ErrorKind.SYNTAX),
+        KEY_ORDER(ErrorKind.KEY_ORDER);
+
+        private final ErrorKind kind;
+
+        Code(ErrorKind kind) {
+            this.kind = kind;
+        }
+
+        public ErrorKind kind() {
+            return kind;
+        }
+    }
+
+    private static final TokenType[] NONE = {};
+
+    private final Code code;
+    private final int line;
+    private final long offset;
+    private final TokenType actual;
+    private final TokenType[] expected;
+    private final Object argument;
+    private final int argumentLength;
+    private final ByteBuffer context;
+    private final int caret;
+    private String message;
+
+    private BencodeError(Code code, int line, long offset, TokenType actual, TokenType[] expected,
+                         Object argument, int argumentLength, ByteBuffer context, int caret) {
+        this.code = code;
+        this.line = line;
+        this.offset = offset;
+        this.actual = actual;
+        this.expected = expected;
+        this.argument = argument;
+        this.argumentLength = argumentLength;
+        this.context = context;
+        this.caret = caret;
+    }
+
+    /**
+     * @param argument the offending char, number text or string length
+     * @param context  bytes around the error, shown in the message
+     * @param caret    position of the error inside the context
+     */
+    public static BencodeError lexical(LexerError error, long offset, Object argument, ByteBuffer context, int caret) {
+        return new BencodeError(Code.valueOf(error.name()), 1, offset, null, NONE, argument, -1, context, caret);
+    }
+
+    /**
+     * Same as {@link #lexical(LexerError, long, Object, ByteBuffer, int)} with the argument
+     * being the {@code length} bytes of the context at the caret, rendered only with the message.
+     */
+    public static BencodeError lexical(LexerError error, long offset, ByteBuffer context, int caret, int length) {
+        return new BencodeError(Code.valueOf(error.name()), 1, offset, null, NONE, null, length, context, caret);
+    }
+
+    /**
+     * @param offset offset of the actual token, -1 for the end of input
+     */
+    public static BencodeError unexpected(int line, long offset, TokenType actual, TokenType... expected) {
+        return new BencodeError(Code.UNEXPECTED_TOKEN, line, offset, actual, expected, null, -1, null, 0);
+    }
+
+    /**
+     * @param offset offset of the dictionary with unsorted keys
+     */
+    public static BencodeError keyOrder(int line, long offset) {
+        return new BencodeError(Code.KEY_ORDER, line, offset, null, NONE, null, -1, null, 0);
+    }
+
+    public Code code() {
+        return code;
+    }
+
+    public ErrorKind kind() {
+        return code.kind();
+    }
+
+    public int line() {
+        return line;
+    }
+
+    public long offset() {
+        return offset;
+    }
+
+    /**
+     * @return found token of an UNEXPECTED_TOKEN error, otherwise null
+     */
+    public TokenType actual() {
+        return actual;
+    }
+
+    public TokenType[] expected() {
+        return expected.clone();
+    }
+
+    public String message() {
+        if (message == null) message = render();
+        return message;
+    }
+
+    @Override
+    public String toString() {
+        return message();
+    }
+
+    private String render() {
+        return switch (code) {
+            case UNEXPECTED_TOKEN -> """
+                    %s
+                    Expected tokens: %s,
+                    Actual: %s
+                    """.formatted(position(offset), Arrays.toString(expected), actual);
+            case KEY_ORDER -> """
+                    %s
+                    The lexicographic order in the dictionary is broken
+                    """.formatted(position(offset == -1 ? -1 : offset + 1));
+            default -> LexerError.valueOf(code.name()).message(ByteInput.text(context, 0, context.limit()), caret,
+                    argumentLength < 0 ? argument : ByteInput.text(context, caret, caret + argumentLength));
+        };
+    }
+
+    private String position(long pos) {
+        return pos == -1 ? "End of line " + line : "Line " + line + ", position: " + pos;
+    }
+}
@@ -0,0 +1,28 @@
+package com.github.plugatarev.bencode.error;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps the messages in memory. Meant for one parse at a time, so every task
+ * of a parallel run gets its own instance.
+ */
+public class CollectingReporter implements ErrorReporter {
+    private static final int MAX_MESSAGES = 20;
+    private final List<String> messages = new ArrayList<>();
+
+    @Override
+    public boolean report(String message) {
+        messages.add(message);
+        return messages.size() < MAX_MESSAGES;
+    }
+
+    @Override
+    public boolean hasError() {
+        return !messages.isEmpty();
+    }
+
+    public List<String> messages() {
+        return messages;
+    }
+}
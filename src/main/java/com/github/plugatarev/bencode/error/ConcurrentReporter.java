@@ -0,0 +1,137 @@
+package com.github.plugatarev.bencode.error;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Reporter shared by parsing threads. Counters are atomic and messages go to a lock-free
+ * queue that keeps at most {@code capacity} of them; the rest are only counted.
+ * Structured errors are queued as they are and rendered only when written out
+ * by {@link #flush} or in the background by {@link #flushAsync}.
+ * <p>
+ * {@link #hasError()} of a shared reporter covers all documents, and parsers return null
+ * when it is true, so every parse should go through its own {@link #session()}.
+ */
+public class ConcurrentReporter implements ErrorReporter {
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    private final int capacity;
+    private final ConcurrentLinkedQueue<Object> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicLongArray counts = new AtomicLongArray(ErrorKind.values().length);
+
+    public ConcurrentReporter() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public ConcurrentReporter(int capacity) {
+        this.capacity = capacity;
+    }
+
+    @Override
+    public boolean report(String message) {
+        return report(ErrorKind.SYNTAX, message);
+    }
+
+    @Override
+    public boolean report(ErrorKind kind, String message) {
+        return add(kind, message);
+    }
+
+    @Override
+    public boolean report(BencodeError error) {
+        return add(error.kind(), error);
+    }
+
+    @Override
+    public boolean hasError() {
+        return count() > 0;
+    }
+
+    /**
+     * @return reporter for one parse that stops it after {@code maxMessages} errors and
+     * forwards everything to this reporter
+     */
+    public ErrorReporter session(int maxMessages) {
+        return new ErrorReporter() {
+            private int nMessages;
+
+            @Override
+            public boolean report(String message) {
+                return report(ErrorKind.SYNTAX, message);
+            }
+
+            @Override
+            public boolean report(ErrorKind kind, String message) {
+                nMessages++;
+                add(kind, message);
+                return nMessages < maxMessages;
+            }
+
+            @Override
+            public boolean report(BencodeError error) {
+                nMessages++;
+                add(error.kind(), error);
+                return nMessages < maxMessages;
+            }
+
+            @Override
+            public boolean hasError() {
+                return nMessages > 0;
+            }
+        };
+    }
+
+    public ErrorReporter session() {
+        return session(20);
+    }
+
+    public long count() {
+        long count = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            count += counts.get(i);
+        }
+        return count;
+    }
+
+    public long count(ErrorKind kind) {
+        return counts.get(kind.ordinal());
+    }
+
+    /**
+     * Writes and removes queued messages. A flush started while another one is running
+     * waits for it, so messages never interleave and are all written when this returns.
+     */
+    public synchronized void flush(Writer writer) {
+        try {
+            Object message;
+            while ((message = queue.poll()) != null) {
+                queued.decrementAndGet();
+                writer.write(message.toString());
+            }
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private boolean add(ErrorKind kind, Object message) {
+        counts.incrementAndGet(kind.ordinal());
+        if (queued.getAndIncrement() < capacity) {
+            queue.offer(message);
+        } else {
+            queued.decrementAndGet();
+        }
+        return true;
+    }
+
+    public CompletableFuture<Void> flushAsync(Writer writer, Executor executor) {
+        return CompletableFuture.runAsync(() -> flush(writer), executor);
+    }
+}
@@ -0,0 +1,84 @@
+package com.github.plugatarev.bencode.error;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Only counts errors, by kind, and never stops a parse. Messages are dropped, so reporting
+ * costs one counter increment.
+ * <p>
+ * Counters are safe to share between threads, but {@link #hasError()} covers everything
+ * reported so far and parsers return null when it is true. To count over many parses,
+ * pass each parse its own {@link #session()}.
+ */
+public class CountingReporter implements ErrorReporter {
+    private final LongAdder[] counts = new LongAdder[ErrorKind.values().length];
+
+    public CountingReporter() {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = new LongAdder();
+        }
+    }
+
+    @Override
+    public boolean report(String message) {
+        return report(ErrorKind.SYNTAX, message);
+    }
+
+    @Override
+    public boolean report(ErrorKind kind, String message) {
+        counts[kind.ordinal()].increment();
+        return true;
+    }
+
+    @Override
+    public boolean report(BencodeError error) {
+        return report(error.kind(), null);
+    }
+
+    @Override
+    public boolean hasError() {
+        return count() > 0;
+    }
+
+    /**
+     * @return reporter for one parse that forwards counts to this reporter
+     */
+    public ErrorReporter session() {
+        return new ErrorReporter() {
+            private boolean failed;
+
+            @Override
+            public boolean report(String message) {
+                return report(ErrorKind.SYNTAX, message);
+            }
+
+            @Override
+            public boolean report(ErrorKind kind, String message) {
+                failed = true;
+                return CountingReporter.this.report(kind, message);
+            }
+
+            @Override
+            public boolean report(BencodeError error) {
+                return report(error.kind(), null);
+            }
+
+            @Override
+            public boolean hasError() {
+                return failed;
+            }
+        };
+    }
+
+    public long count() {
+        long count = 0;
+        for (LongAdder adder : counts) {
+            count += adder.sum();
+        }
+        return count;
+    }
+
+    public long count(ErrorKind kind) {
+        return counts[kind.ordinal()].sum();
+    }
+}
@@ -0,0 +1,20 @@
+package com.github.plugatarev.bencode.error;
+
+public enum ErrorKind {
+    /**
+     * Malformed token: unknown char, bad number, string longer than the input
+     */
+    LEXICAL,
+    /**
+     * Token that the grammar does not allow at its place
+     */
+    SYNTAX,
+    /**
+     * Dictionary keys that are not sorted
+     */
+    KEY_ORDER,
+    /**
+     * Input that could not be read
+     */
+    IO
+}
@@ -6,5 +6,19 @@ public interface ErrorReporter {
      */
     boolean report(String message);
 
+    /**
+     * Same as {@link #report(String)} for reporters that count errors by kind.
+     */
+    default boolean report(ErrorKind kind, String message) {
+        return report(message);
+    }
+
+    /**
+     * Renders the message and passes it on; override to avoid rendering.
+     */
+    default boolean report(BencodeError error) {
+        return report(error.kind(), error.message());
+    }
+
     boolean hasError();
 }
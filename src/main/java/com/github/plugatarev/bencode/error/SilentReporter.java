@@ -0,0 +1,27 @@
+package com.github.plugatarev.bencode.error;
+
+/**
+ * Drops every error and stops the parse at the first one. For callers that learn about
+ * malformed input from the {@link com.github.plugatarev.bencode.parser.ParserException} instead.
+ */
+public final class SilentReporter implements ErrorReporter {
+    public static final SilentReporter INSTANCE = new SilentReporter();
+
+    private SilentReporter() {
+    }
+
+    @Override
+    public boolean report(String message) {
+        return false;
+    }
+
+    @Override
+    public boolean report(BencodeError error) {
+        return false;
+    }
+
+    @Override
+    public boolean hasError() {
+        return false;
+    }
+}
@@ -0,0 +1,245 @@
+package com.github.plugatarev.bencode.lexer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.security.MessageDigest;
+import java.util.Arrays;
+
+/**
+ * Byte cursor over a {@link ByteBuffer}, a memory-mapped file or a blocking channel.
+ * Channel input is read in fixed-size chunks, so only one chunk is held in memory at a time.
+ */
+public final class ByteInput {
+    private static final int CHUNK_SIZE = 8192;
+    private static final int WINDOW_SIZE = 1 << 30;
+
+    private final ReadableByteChannel channel;
+    private final FileChannel file;
+    private final int windowSize;
+    private ByteBuffer buffer;
+    private long base;
+    private boolean eof;
+    private MessageDigest capture;
+    private long captureFrom;
+
+    private ByteInput(ReadableByteChannel channel, FileChannel file, int windowSize, ByteBuffer buffer) {
+        this.channel = channel;
+        this.file = file;
+        this.windowSize = windowSize;
+        this.buffer = buffer;
+    }
+
+    public static ByteInput wrap(ByteBuffer buffer) {
+        return new ByteInput(null, null, 0, buffer.slice());
+    }
+
+    /**
+     * Wraps a part of a larger input, so positions count from the start of that input.
+     *
+     * @param offset absolute offset of the buffer position
+     */
+    public static ByteInput wrap(ByteBuffer buffer, long offset) {
+        ByteInput in = wrap(buffer);
+        in.base = offset;
+        return in;
+    }
+
+    public static ByteInput of(ReadableByteChannel channel) {
+        return new ByteInput(channel, null, 0, ByteBuffer.allocate(CHUNK_SIZE).flip());
+    }
+
+    /**
+     * Maps the file read-only in windows of up to 1 GiB. The channel has to stay open
+     * until the input is read; the mapped bytes outlive it.
+     */
+    public static ByteInput map(FileChannel file) {
+        return map(file, WINDOW_SIZE);
+    }
+
+    public static ByteInput map(FileChannel file, int windowSize) {
+        return new ByteInput(null, file, windowSize, ByteBuffer.allocate(0));
+    }
+
+    public static ByteInput of(InputStream in) {
+        return of(Channels.newChannel(in));
+    }
+
+    /**
+     * Points an input made by {@link #wrap} at another buffer, as if it was wrapped anew.
+     *
+     * @throws IllegalStateException if the input reads a channel or a file
+     */
+    public void reset(ByteBuffer buffer) {
+        if (channel != null || file != null) throw new IllegalStateException("Only a wrapped buffer can be reset");
+        this.buffer = buffer.slice();
+        base = 0;
+        capture = null;
+    }
+
+    /**
+     * @return absolute offset of the next byte
+     */
+    public long position() {
+        return base + buffer.position();
+    }
+
+    /**
+     * @return next byte as unsigned value without consuming it, or -1 at the end of input
+     */
+    public int peek() {
+        if (!ensure()) return -1;
+        return buffer.get(buffer.position()) & 0xFF;
+    }
+
+    /**
+     * @return next byte as unsigned value, or -1 at the end of input
+     */
+    public int read() {
+        if (!ensure()) return -1;
+        return buffer.get() & 0xFF;
+    }
+
+    /**
+     * @return next {@code n} bytes, or null if the input ends before that. Buffer and mapped
+     * input is not copied unless the bytes cross a window: the result is a slice of it.
+     */
+    public ByteBuffer read(int n) {
+        if (channel == null && ensure() && n <= buffer.remaining()) {
+            ByteBuffer slice = buffer.slice(buffer.position(), n);
+            buffer.position(buffer.position() + n);
+            return slice;
+        }
+        return copy(n);
+    }
+
+    private ByteBuffer copy(int n) {
+        byte[] bytes = new byte[Math.min(n, CHUNK_SIZE)];
+        int copied = 0;
+        while (copied < n) {
+            if (!ensure()) return null;
+            int count = Math.min(n - copied, buffer.remaining());
+            if (copied + count > bytes.length) {
+                bytes = Arrays.copyOf(bytes, (int) Math.min(n, Math.max(2L * bytes.length, copied + count)));
+            }
+            buffer.get(bytes, copied, count);
+            copied += count;
+        }
+        return ByteBuffer.wrap(bytes);
+    }
+
+    /**
+     * Skips {@code n} bytes without copying them.
+     * @return false if the input ends before that
+     */
+    public boolean skip(long n) {
+        while (n > 0) {
+            if (!ensure()) return false;
+            int count = (int) Math.min(n, buffer.remaining());
+            buffer.position(buffer.position() + count);
+            n -= count;
+        }
+        return true;
+    }
+
+    /**
+     * Renders bytes of the range that are still buffered, replacing non-printable ones with '.'.
+     */
+    public String text(long from, long to) {
+        int start = (int) (Math.max(from, base) - base);
+        int end = (int) (Math.min(to, base + buffer.limit()) - base);
+        return text(buffer, start, end);
+    }
+
+    /**
+     * @return buffered bytes in the range; a copy for channel input, whose buffer is reused
+     */
+    public ByteBuffer context(long from, long to) {
+        int start = (int) (Math.max(from, base) - base);
+        int end = (int) (Math.max(Math.min(to, base + buffer.limit()) - base, start));
+        ByteBuffer slice = buffer.slice(start, end - start);
+        return channel == null ? slice : ByteBuffer.allocate(slice.remaining()).put(slice).flip();
+    }
+
+    public static String text(ByteBuffer buffer, int from, int to) {
+        StringBuilder sb = new StringBuilder(Math.max(to - from, 0));
+        for (int i = Math.max(from, 0); i < Math.min(to, buffer.limit()); i++) {
+            int b = buffer.get(i) & 0xFF;
+            sb.append(b >= 0x20 && b < 0x7F ? (char) b : '.');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Feeds the bytes from {@code from} on into the digest as the input moves past them,
+     * until {@link #endCapture}. The start has to be still buffered.
+     */
+    public void capture(MessageDigest digest, long from) {
+        if (from < base) throw new IllegalStateException("Offset " + from + " is no longer buffered");
+        capture = digest;
+        captureFrom = from;
+    }
+
+    /**
+     * Feeds the rest of the captured range, up to the offset {@code to}, and stops capturing.
+     */
+    public void endCapture(long to) {
+        if (capture == null) return;
+        captureTo(to);
+        capture = null;
+    }
+
+    private void captureTo(long to) {
+        int from = (int) (captureFrom - base);
+        capture.update(buffer.slice(from, (int) (to - base) - from));
+        captureFrom = to;
+    }
+
+    /**
+     * @return absolute offset of the first byte still buffered
+     */
+    public long windowStart() {
+        return base;
+    }
+
+    private boolean ensure() {
+        return buffer.hasRemaining() || fill();
+    }
+
+    private boolean fill() {
+        if (file != null) return map();
+        if (channel == null || eof) return false;
+        if (capture != null) captureTo(base + buffer.limit());
+        base += buffer.limit();
+        buffer.clear();
+        int n;
+        try {
+            do {
+                n = channel.read(buffer);
+            } while (n == 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        buffer.flip();
+        if (n < 0) eof = true;
+        return n > 0;
+    }
+
+    private boolean map() {
+        try {
+            long next = base + buffer.limit();
+            long size = file.size();
+            if (next >= size) return false;
+            if (capture != null) captureTo(next);
+            base = next;
+            buffer = file.map(FileChannel.MapMode.READ_ONLY, base, Math.min(windowSize, size - base));
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
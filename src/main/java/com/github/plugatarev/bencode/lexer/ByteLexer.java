@@ -0,0 +1,248 @@
+package com.github.plugatarev.bencode.lexer;
+
+import com.github.plugatarev.bencode.error.BencodeError;
+import com.github.plugatarev.bencode.error.ErrorReporter;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+
+/**
+ * Pull tokenizer over raw bytes. String payloads are taken as they are, so binary
+ * values and newlines inside strings are allowed.
+ */
+public class ByteLexer {
+    private static final int CONTEXT = 32;
+    private static final int NONE = -1;
+
+    private ByteInput in;
+    private ErrorReporter reporter;
+    private TokenType type;
+    private long start;
+    private long number;
+    private BigInteger bigNumber;
+    private ByteBuffer bytes;
+    private boolean integerPending;
+    private int separatorPending = NONE;
+    private int stringPending = NONE;
+    private boolean stopped;
+    private boolean skipStrings;
+    private BencodeError lastError;
+
+    public ByteLexer(ByteInput in, ErrorReporter reporter) {
+        this.in = in;
+        this.reporter = reporter;
+    }
+
+    /**
+     * Starts over on another input, dropping all state of the previous one.
+     */
+    public void reset(ByteInput in, ErrorReporter reporter) {
+        this.in = in;
+        this.reporter = reporter;
+        type = null;
+        start = 0;
+        number = 0;
+        bigNumber = null;
+        bytes = null;
+        integerPending = false;
+        separatorPending = NONE;
+        stringPending = NONE;
+        stopped = false;
+        skipStrings = false;
+        lastError = null;
+    }
+
+    /**
+     * Moves to the next token. Lexical errors are reported and skipped,
+     * so the returned token is always a valid one or EOF.
+     */
+    public TokenType next() {
+        TokenType next;
+        do {
+            next = scanToken();
+        } while (next == null);
+        return type = next;
+    }
+
+    /**
+     * While set, STRING tokens are produced without reading their payload.
+     */
+    public void skipStrings(boolean skip) {
+        skipStrings = skip;
+    }
+
+    /**
+     * @return last reported error, or null if there was none
+     */
+    public BencodeError lastError() {
+        return lastError;
+    }
+
+    public TokenType type() {
+        return type;
+    }
+
+    /**
+     * @return offset right after the current token
+     */
+    public long end() {
+        return in.position();
+    }
+
+    /**
+     * @return offset of the current token, -1 for EOF
+     */
+    public long start() {
+        return start;
+    }
+
+    /**
+     * @return value of the current INTEGER or STRING_BEGIN token; the low 64 bits
+     * when the integer does not fit in a long
+     */
+    public long longValue() {
+        return number;
+    }
+
+    /**
+     * @return value of the current INTEGER token if it does not fit in a long, otherwise null
+     */
+    public BigInteger bigValue() {
+        return bigNumber;
+    }
+
+    /**
+     * @return payload of the current STRING token, a slice of the source when it is a buffer
+     */
+    public ByteBuffer bytes() {
+        return bytes;
+    }
+
+    public Token token() {
+        Object value = switch (type) {
+            case INTEGER -> bigNumber != null ? bigNumber : (Object) number;
+            case STRING_BEGIN -> (int) number;
+            case STRING -> bytes;
+            case INTEGER_BEGIN -> 'i';
+            case SEPARATOR -> ':';
+            case DICTIONARY -> 'd';
+            case LIST -> 'l';
+            case END_TYPE -> 'e';
+            case EOF -> 1;
+        };
+        return new Token(type, 1, start, value);
+    }
+
+    private TokenType scanToken() {
+        if (stopped) return eof();
+        if (integerPending) {
+            integerPending = false;
+            return number(TokenType.INTEGER, true);
+        }
+        if (stringPending != NONE) {
+            int length = stringPending;
+            stringPending = NONE;
+            return string(length);
+        }
+        int length = separatorPending;
+        separatorPending = NONE;
+        start = in.position();
+        int c = in.peek();
+        if (c == -1) return eof();
+        if (isDigit(c)) return number(TokenType.STRING_BEGIN, false);
+        in.read();
+        return switch (c) {
+            case 'i' -> {
+                integerPending = true;
+                yield TokenType.INTEGER_BEGIN;
+            }
+            case ':' -> {
+                stringPending = length;
+                yield TokenType.SEPARATOR;
+            }
+            case 'd' -> TokenType.DICTIONARY;
+            case 'l' -> TokenType.LIST;
+            case 'e' -> TokenType.END_TYPE;
+            default -> error(LexerError.UNKNOWN_CHAR, start, (char) c);
+        };
+    }
+
+    private TokenType eof() {
+        start = -1;
+        return TokenType.EOF;
+    }
+
+    private TokenType number(TokenType type, boolean signed) {
+        start = in.position();
+        boolean negative = signed && in.peek() == '-';
+        if (negative) in.read();
+        boolean leadingZero = in.peek() == '0';
+        long value = 0;
+        int digits = 0;
+        StringBuilder big = null;
+        while (isDigit(in.peek())) {
+            int digit = in.read() - '0';
+            if (big != null) {
+                big.append((char) ('0' + digit));
+            } else if (value > (Long.MAX_VALUE - digit) / 10) {
+                big = new StringBuilder(negative ? "-" : "").append(value).append((char) ('0' + digit));
+            } else {
+                value = value * 10 + digit;
+            }
+            digits++;
+        }
+        if (digits == 0 || type == TokenType.STRING_BEGIN && (big != null || value > Integer.MAX_VALUE)) {
+            return textError(LexerError.INCORRECT_NUMBER, start, (int) (in.position() - start));
+        }
+        if (leadingZero && (digits > 1 || negative)) {
+            return textError(LexerError.NUMBER_WITH_DEAD_ZEROS, start, (int) (in.position() - start));
+        }
+        bigNumber = big == null ? null : new BigInteger(big.toString());
+        if (bigNumber != null) {
+            number = bigNumber.longValue();
+            if (bigNumber.bitLength() < Long.SIZE) bigNumber = null;
+        } else {
+            number = negative ? -value : value;
+        }
+        if (type == TokenType.STRING_BEGIN) separatorPending = (int) number;
+        return type;
+    }
+
+    private TokenType string(int length) {
+        start = in.position();
+        bytes = skipStrings ? null : in.read(length);
+        if (skipStrings ? !in.skip(length) : bytes == null) {
+            error(LexerError.INCORRECT_STRING_LENGTH, start, length);
+            stopped = true;
+            return eof();
+        }
+        return TokenType.STRING;
+    }
+
+    private TokenType error(LexerError error, long pos, Object obj) {
+        long from = Math.max(in.windowStart(), pos - CONTEXT);
+        return report(BencodeError.lexical(error, pos, obj, in.context(from, pos + CONTEXT), (int) Math.max(pos - from, 0)));
+    }
+
+    /**
+     * Error whose argument is the {@code length} bytes at {@code pos}; they stay in the context
+     * and are turned into text only if the message is rendered.
+     */
+    private TokenType textError(LexerError error, long pos, int length) {
+        long from = Math.max(in.windowStart(), pos - CONTEXT);
+        ByteBuffer context = in.context(from, Math.max(pos + CONTEXT, pos + length));
+        return report(BencodeError.lexical(error, pos, context, (int) Math.max(pos - from, 0), length));
+    }
+
+    private TokenType report(BencodeError error) {
+        lastError = error;
+        if (!reporter.report(error)) {
+            stopped = true;
+        }
+        return null;
+    }
+
+    private static boolean isDigit(int c) {
+        return c >= '0' && c <= '9';
+    }
+}
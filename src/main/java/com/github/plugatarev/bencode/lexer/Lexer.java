@@ -1,9 +1,14 @@
 package com.github.plugatarev.bencode.lexer;
+import com.github.plugatarev.bencode.error.ErrorKind;
 import com.github.plugatarev.bencode.error.ErrorReporter;
 
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -23,6 +28,28 @@ public class Lexer {
         return lexer.scan();
     }
 
+    public static List<Token> scan(InputStream in, ErrorReporter reporter) {
+        return scan(ByteInput.of(in), reporter);
+    }
+
+    public static List<Token> scan(ReadableByteChannel channel, ErrorReporter reporter) {
+        return scan(ByteInput.of(channel), reporter);
+    }
+
+    public static List<Token> scan(ByteBuffer buffer, ErrorReporter reporter) {
+        return scan(ByteInput.wrap(buffer), reporter);
+    }
+
+    public static List<Token> scan(ByteInput in, ErrorReporter reporter) {
+        ByteLexer lexer = new ByteLexer(in, reporter);
+        List<Token> tokens = new ArrayList<>();
+        do {
+            lexer.next();
+            tokens.add(lexer.token());
+        } while (lexer.type() != TokenType.EOF);
+        return reporter.hasError() ? null : tokens;
+    }
+
     private List<Token> scan() {
         String line;
         if ((line = getLine()) == null || line.isBlank()) {
@@ -45,12 +72,12 @@ public class Lexer {
             }
             if (isDigit(c)){
                 if ((i = number(i, line, TokenType.STRING_BEGIN)) == -1) return null;
-                lastNumber = getLastToken() == null ? 0 : (Integer)getLastToken().value();
+                lastNumber = getLastToken() != null && getLastToken().value() instanceof Number n ? n.intValue() : 0;
                 continue;
             }
             if (type == null) {
                 String unknownCharError = LexerError.UNKNOWN_CHAR.message(line, i, c);
-                if (!reporter.report(unknownCharError)) return null;
+                if (!reporter.report(ErrorKind.LEXICAL, unknownCharError)) return null;
             } else {
                 tokens.add(new Token(type, nLine, i, c));
             }
@@ -100,24 +127,32 @@ public class Lexer {
         do {
             i++;
         } while (i < line.length() && Character.isDigit(line.charAt(i)));
-        int value;
+        Object value;
         String number = line.substring(start, i);
         if (startsWithZeros(number)){
             String deadZeroesError = LexerError.NUMBER_WITH_DEAD_ZEROS.message(line, start, number);
-            if (!reporter.report(deadZeroesError)) return -1;
+            if (!reporter.report(ErrorKind.LEXICAL, deadZeroesError)) return -1;
             return number.length();
         }
         try{
-            value = Integer.parseInt(number);
+            value = type == TokenType.INTEGER ? parseLong(number) : (Object) Integer.parseInt(number);
         }catch(NumberFormatException e){
             String incorrectNumberError = LexerError.INCORRECT_NUMBER.message(line, start, number);
-            if (!reporter.report(incorrectNumberError)) return -1;
+            if (!reporter.report(ErrorKind.LEXICAL, incorrectNumberError)) return -1;
            return number.length();
         }
         tokens.add(new Token(type, nLine, start, value));
         return i;
     }
 
+    private static Object parseLong(String number) {
+        try {
+            return Long.parseLong(number);
+        } catch (NumberFormatException e) {
+            return new BigInteger(number);
+        }
+    }
+
     private boolean startsWithZeros(String number) {
         return number.length() > 1 && (number.charAt(0) == '0' || number.charAt(0) == '-' && number.charAt(1) == '0');
     }
@@ -125,13 +160,13 @@ public class Lexer {
     private int string(int i, String line, int length){
         if (length == 0 || i + length > line.length()){
             String incorrectLength = LexerError.INCORRECT_STRING_LENGTH.message(line, i, length);
-            if (!reporter.report(incorrectLength)) return -1;
+            if (!reporter.report(ErrorKind.LEXICAL, incorrectLength)) return -1;
             return length == 0 ? -1 : i + length;
         }
         for (int pos = i; pos < i + length; pos++){
             if (!isAscii(line.charAt(pos))){
                 String unknownCharError = LexerError.UNKNOWN_CHAR.message(line, pos, length);
-                if (!reporter.report(unknownCharError)) return -1;
+                if (!reporter.report(ErrorKind.LEXICAL, unknownCharError)) return -1;
                 return ++i;
             }
         }
@@ -1,3 +1,3 @@
 package com.github.plugatarev.bencode.lexer;
 
-public record Token(TokenType tokenType, int nLine, int pos, Object value) {}
+public record Token(TokenType tokenType, int nLine, long pos, Object value) {}
@@ -0,0 +1,233 @@
+package com.github.plugatarev.bencode.parser;
+
+import com.github.plugatarev.bencode.error.ErrorReporter;
+import com.github.plugatarev.bencode.lexer.ByteInput;
+import com.github.plugatarev.bencode.lexer.ByteLexer;
+import com.github.plugatarev.bencode.lexer.TokenType;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Pull cursor over bencode values. Only the chain of open containers is kept,
+ * so memory use depends on the nesting depth and not on the document size.
+ * Malformed input ends with a {@link ParserException}.
+ */
+public class BencodeReader {
+    private static final byte LIST = 0;
+    private static final byte DICT_KEY = 1;
+    private static final byte DICT_VALUE = 2;
+
+    private final ByteLexer lexer;
+    private final KeyCache keyCache;
+    private byte[] frames = new byte[8];
+    private long[] starts = new long[8];
+    private Element.BString[] keys = new Element.BString[8];
+    private int depth;
+    private Event event;
+    private long start;
+    private Element.BString string;
+    private long number;
+    private BigInteger bigNumber;
+
+    public BencodeReader(ByteInput in, ErrorReporter errorReporter) {
+        this(in, errorReporter, null);
+    }
+
+    /**
+     * @param keyCache source of KEY values, may be null
+     */
+    public BencodeReader(ByteInput in, ErrorReporter errorReporter, KeyCache keyCache) {
+        this.lexer = new ByteLexer(in, errorReporter);
+        this.keyCache = keyCache;
+    }
+
+    public Event next() {
+        TokenType token = nextToken();
+        if (depth > 0 && frames[depth - 1] == DICT_KEY) {
+            if (token == TokenType.END_TYPE) return end();
+            start = lexer.start();
+            string = readString(token, keyCache);
+            checkOrder();
+            frames[depth - 1] = DICT_VALUE;
+            return event = Event.KEY;
+        }
+        start = lexer.start();
+        return event = switch (token) {
+            case DICTIONARY -> push(DICT_KEY, Event.START_DICT);
+            case LIST -> push(LIST, Event.START_LIST);
+            case INTEGER_BEGIN -> {
+                expect(nextToken(), TokenType.INTEGER);
+                number = lexer.longValue();
+                bigNumber = lexer.bigValue();
+                expect(nextToken(), TokenType.END_TYPE);
+                valueRead();
+                yield Event.INTEGER;
+            }
+            case STRING_BEGIN -> {
+                string = readString(token, null);
+                valueRead();
+                yield Event.STRING;
+            }
+            case END_TYPE -> {
+                if (depth == 0) throw unexpected();
+                yield end();
+            }
+            case EOF -> {
+                if (depth > 0) throw unexpected(TokenType.END_TYPE);
+                yield Event.EOF;
+            }
+            default -> throw unexpected();
+        };
+    }
+
+    /**
+     * Checks that nothing follows the top-level value that was read.
+     */
+    public void expectEnd() {
+        expect(nextToken(), TokenType.EOF);
+    }
+
+    /**
+     * Skips the children of the current START_DICT or START_LIST, or the value of the current KEY.
+     * The cursor is left on the last event of the skipped value.
+     */
+    public void skipValue() {
+        lexer.skipStrings(true);
+        try {
+            if (event == Event.KEY) next();
+            if (event != Event.START_DICT && event != Event.START_LIST) return;
+            int level = depth - 1;
+            while (depth > level) {
+                next();
+            }
+        } finally {
+            lexer.skipStrings(false);
+        }
+    }
+
+    /**
+     * Builds the value of the current STRING, INTEGER, START_DICT or START_LIST event.
+     * For a container the cursor is left on its END.
+     */
+    public Element readValue() {
+        return switch (event) {
+            case STRING -> string;
+            case INTEGER -> bigNumber != null ? new Element.BInteger(bigNumber) : new Element.BInteger(number);
+            case START_LIST -> {
+                List<Element> list = new ArrayList<>();
+                while (next() != Event.END) {
+                    list.add(readValue());
+                }
+                yield new Element.BList(list);
+            }
+            case START_DICT -> {
+                SortedDictionary.Builder dict = new SortedDictionary.Builder();
+                while (next() == Event.KEY) {
+                    Element.BString key = string;
+                    next();
+                    dict.put(key, readValue());
+                }
+                yield new Element.BDictionary(dict.build());
+            }
+            default -> throw new IllegalStateException("No value at " + event);
+        };
+    }
+
+    public Event event() {
+        return event;
+    }
+
+    /**
+     * @return number of open containers
+     */
+    public int depth() {
+        return depth;
+    }
+
+    /**
+     * @return offset where the current event starts
+     */
+    public long start() {
+        return start;
+    }
+
+    /**
+     * @return value of the current KEY or STRING event
+     */
+    public Element.BString stringValue() {
+        return string;
+    }
+
+    /**
+     * @return value of the current INTEGER event; the low 64 bits if it does not fit in a long
+     */
+    public long longValue() {
+        return number;
+    }
+
+    /**
+     * @return value of the current INTEGER event if it does not fit in a long, otherwise null
+     */
+    public BigInteger bigValue() {
+        return bigNumber;
+    }
+
+    private TokenType nextToken() {
+        TokenType token = lexer.next();
+        if (lexer.lastError() != null) throw ParserException.reported(lexer.lastError());
+        return token;
+    }
+
+    private Element.BString readString(TokenType token, KeyCache cache) {
+        expect(token, TokenType.STRING_BEGIN);
+        expect(nextToken(), TokenType.SEPARATOR);
+        expect(nextToken(), TokenType.STRING);
+        if (lexer.bytes() == null) return null;
+        return cache != null ? cache.intern(lexer.bytes()) : new Element.BString(lexer.bytes());
+    }
+
+    private Event push(byte frame, Event started) {
+        valueRead();
+        if (depth == frames.length) {
+            frames = Arrays.copyOf(frames, depth * 2);
+            starts = Arrays.copyOf(starts, depth * 2);
+            keys = Arrays.copyOf(keys, depth * 2);
+        }
+        frames[depth] = frame;
+        starts[depth] = start;
+        keys[depth] = null;
+        depth++;
+        return started;
+    }
+
+    private Event end() {
+        depth--;
+        keys[depth] = null;
+        start = lexer.start();
+        return event = Event.END;
+    }
+
+    private void valueRead() {
+        if (depth > 0 && frames[depth - 1] == DICT_VALUE) frames[depth - 1] = DICT_KEY;
+    }
+
+    private void checkOrder() {
+        if (string == null) return;
+        Element.BString prev = keys[depth - 1];
+        if (prev != null && string.compareTo(prev) < 0) {
+            throw new ParserException(Parser.lexicographicOrder(1, starts[depth - 1]));
+        }
+        keys[depth - 1] = string;
+    }
+
+    private void expect(TokenType actual, TokenType expected) {
+        if (actual != expected) throw unexpected(expected);
+    }
+
+    private ParserException unexpected(TokenType... expected) {
+        return new ParserException(Parser.unexpectedToken(lexer, expected));
+    }
+}
@@ -1,14 +1,53 @@
 package com.github.plugatarev.bencode.parser;
 
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
 
 public sealed interface Element {
 
-    record BInteger(int value) implements Element {
+    /**
+     * Integer of any size. {@code big} is set only when the value does not fit in a long,
+     * {@code value} then holds its low 64 bits.
+     */
+    record BInteger(long value, BigInteger big) implements Element {
+        public BInteger {
+            if (big != null) {
+                value = big.longValue();
+                if (big.bitLength() < Long.SIZE) big = null;
+            }
+        }
+
+        public BInteger(long value) {
+            this(value, null);
+        }
+
+        public BInteger(BigInteger value) {
+            this(0, value);
+        }
+
+        public boolean isLong() {
+            return big == null;
+        }
+
+        /**
+         * @throws ArithmeticException if the value does not fit in a long
+         */
+        public long longValue() {
+            if (big != null) throw new ArithmeticException("Integer " + big + " does not fit in a long");
+            return value;
+        }
+
+        public BigInteger bigIntegerValue() {
+            return big != null ? big : BigInteger.valueOf(value);
+        }
+
         @Override
         public String toString() {
-            return String.valueOf(value);
+            return big != null ? big.toString() : String.valueOf(value);
         }
     }
 
@@ -26,10 +65,83 @@ public sealed interface Element {
         }
     }
 
-    record BString(String str) implements  Element{
+    /**
+     * Byte string that may share its bytes with the parsed source. Equality, hashing and
+     * ordering are based on the raw bytes; decoding to text happens only on request.
+     */
+    record BString(ByteBuffer bytes) implements Element, Comparable<BString> {
+        public BString {
+            bytes = bytes.slice();
+        }
+
+        public BString(byte[] bytes) {
+            this(ByteBuffer.wrap(bytes));
+        }
+
+        public BString(String str) {
+            this(str.getBytes(StandardCharsets.UTF_8));
+        }
+
+        /**
+         * @return read-only view of the bytes, positioned at the first one
+         */
+        @Override
+        public ByteBuffer bytes() {
+            return bytes.asReadOnlyBuffer();
+        }
+
+        public int length() {
+            return bytes.remaining();
+        }
+
+        public byte byteAt(int index) {
+            return bytes.get(index);
+        }
+
+        public byte[] toByteArray() {
+            byte[] array = new byte[bytes.remaining()];
+            bytes.get(0, array);
+            return array;
+        }
+
+        public String asString(Charset charset) {
+            if (bytes.hasArray()) {
+                return new String(bytes.array(), bytes.arrayOffset(), bytes.remaining(), charset);
+            }
+            return new String(toByteArray(), charset);
+        }
+
+        public String str() {
+            return asString(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public int compareTo(BString other) {
+            int i = bytes.mismatch(other.bytes);
+            if (i == -1) return 0;
+            if (i == bytes.remaining() || i == other.bytes.remaining()) {
+                return Integer.compare(bytes.remaining(), other.bytes.remaining());
+            }
+            return Integer.compare(bytes.get(i) & 0xFF, other.bytes.get(i) & 0xFF);
+        }
+
+        boolean contentEquals(ByteBuffer other) {
+            return bytes.equals(other);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return this == o || o instanceof BString other && bytes.equals(other.bytes);
+        }
+
+        @Override
+        public int hashCode() {
+            return bytes.hashCode();
+        }
+
         @Override
         public String toString(){
-            return "\"" + str + "\"";
+            return "\"" + str() + "\"";
         }
     }
 }
@@ -0,0 +1,11 @@
+package com.github.plugatarev.bencode.parser;
+
+public enum Event {
+    START_DICT,
+    START_LIST,
+    KEY,
+    STRING,
+    INTEGER,
+    END,
+    EOF
+}
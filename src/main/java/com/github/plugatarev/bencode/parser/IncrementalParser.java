@@ -0,0 +1,295 @@
+package com.github.plugatarev.bencode.parser;
+
+import com.github.plugatarev.bencode.error.BencodeError;
+import com.github.plugatarev.bencode.error.ErrorReporter;
+import com.github.plugatarev.bencode.lexer.LexerError;
+import com.github.plugatarev.bencode.lexer.TokenType;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Push parser for input that arrives in pieces. {@link #feed} takes whatever bytes are
+ * available and keeps its place between calls, even in the middle of a number or a string.
+ * Chunks are not kept after the call returns, so the caller may reuse its buffer.
+ * <p>
+ * After an error nothing more is parsed until {@link #reset}.
+ */
+public class IncrementalParser {
+    private static final int CONTEXT = 32;
+    private static final int MAX_PREALLOCATED = 1 << 16;
+
+    private enum State {
+        VALUE,
+        INTEGER,
+        LENGTH,
+        STRING
+    }
+
+    private static final class Frame {
+        private final long start;
+        private final List<Element> list;
+        private final SortedDictionary.Builder dict;
+        private Element.BString key;
+        private Element.BString prevKey;
+
+        private Frame(long start, boolean isDict) {
+            this.start = start;
+            this.list = isDict ? null : new ArrayList<>();
+            this.dict = isDict ? new SortedDictionary.Builder() : null;
+        }
+    }
+
+    private final ErrorReporter errorReporter;
+    private final List<Frame> stack = new ArrayList<>();
+    private final StringBuilder digits = new StringBuilder();
+    private State state = State.VALUE;
+    private long offset;
+    private long numberStart;
+    private boolean negative;
+    private boolean big;
+    private long number;
+    private byte[] string;
+    private int stringLength;
+    private int filled;
+    private boolean failed;
+
+    public IncrementalParser(ErrorReporter errorReporter) {
+        this.errorReporter = errorReporter;
+    }
+
+    /**
+     * Reads the chunk up to the end of the next top-level value.
+     *
+     * @return the value, with the chunk positioned right after it; or null when the chunk
+     * was used up without finishing a value, or an error was reported
+     */
+    public Element feed(ByteBuffer chunk) {
+        while (!failed && chunk.hasRemaining()) {
+            Element value = switch (state) {
+                case VALUE -> value(chunk);
+                case INTEGER -> integer(chunk);
+                case LENGTH -> length(chunk);
+                case STRING -> string(chunk);
+            };
+            if (value != null && (value = add(value)) != null) return value;
+        }
+        return null;
+    }
+
+    /**
+     * @return true if no value is started, so the input may end here
+     */
+    public boolean isIdle() {
+        return !failed && state == State.VALUE && stack.isEmpty();
+    }
+
+    public boolean hasFailed() {
+        return failed;
+    }
+
+    /**
+     * Ends the input; a value that is only partly read is reported as an error.
+     *
+     * @return true if the input ended between values
+     */
+    public boolean finish() {
+        if (failed) return false;
+        if (isIdle()) return true;
+        if (state == State.STRING) {
+            fail(BencodeError.lexical(LexerError.INCORRECT_STRING_LENGTH, offset - filled, stringLength, ByteBuffer.allocate(0), 0));
+        } else {
+            TokenType expected = state == State.LENGTH ? TokenType.SEPARATOR : TokenType.END_TYPE;
+            fail(BencodeError.unexpected(1, -1, TokenType.EOF, expected));
+        }
+        return false;
+    }
+
+    /**
+     * Drops the partly read value and any error, so the parser can take a new input.
+     */
+    public void reset() {
+        stack.clear();
+        state = State.VALUE;
+        offset = 0;
+        string = null;
+        failed = false;
+    }
+
+    private Element value(ByteBuffer chunk) {
+        Frame top = stack.isEmpty() ? null : stack.get(stack.size() - 1);
+        long start = offset;
+        byte c = next(chunk);
+        if (top != null && top.dict != null && top.key == null && c != 'e' && !isDigit(c)) {
+            return unexpected(chunk, c, start, TokenType.STRING_BEGIN);
+        }
+        switch (c) {
+            case 'd', 'l' -> stack.add(new Frame(start, c == 'd'));
+            case 'i' -> {
+                startNumber();
+                state = State.INTEGER;
+            }
+            case 'e' -> {
+                if (top == null || top.key != null) return unexpected(chunk, c, start);
+                stack.remove(stack.size() - 1);
+                return top.dict != null ? new Element.BDictionary(top.dict.build()) : new Element.BList(top.list);
+            }
+            default -> {
+                if (!isDigit(c)) return unexpected(chunk, c, start);
+                startNumber();
+                digit(c);
+                state = State.LENGTH;
+            }
+        }
+        return null;
+    }
+
+    private Element integer(ByteBuffer chunk) {
+        long start = offset;
+        byte c = next(chunk);
+        if (c == '-' && digits.length() == 0 && !negative) {
+            negative = true;
+        } else if (isDigit(c)) {
+            digit(c);
+        } else if (c != 'e' || digits.length() == 0) {
+            return unexpected(chunk, c, start, c == 'e' ? TokenType.INTEGER : TokenType.END_TYPE);
+        } else {
+            if (!checkZeros(chunk)) return null;
+            state = State.VALUE;
+            if (!big) return new Element.BInteger(negative ? -number : number);
+            return new Element.BInteger(new BigInteger((negative ? "-" : "") + digits));
+        }
+        return null;
+    }
+
+    private Element length(ByteBuffer chunk) {
+        long start = offset;
+        byte c = next(chunk);
+        if (isDigit(c)) {
+            digit(c);
+            if (big || number > Integer.MAX_VALUE) {
+                return lexical(chunk, LexerError.INCORRECT_NUMBER, numberStart, digits.toString());
+            }
+            return null;
+        }
+        if (c != ':') return unexpected(chunk, c, start, TokenType.SEPARATOR);
+        if (!checkZeros(chunk)) return null;
+        stringLength = (int) number;
+        filled = 0;
+        if (stringLength == 0) {
+            state = State.VALUE;
+            return new Element.BString(new byte[0]);
+        }
+        string = new byte[Math.min(stringLength, MAX_PREALLOCATED)];
+        state = State.STRING;
+        return null;
+    }
+
+    private Element string(ByteBuffer chunk) {
+        int count = Math.min(chunk.remaining(), stringLength - filled);
+        if (filled + count > string.length) {
+            string = Arrays.copyOf(string, (int) Math.min(stringLength, Math.max(filled + count, 2L * string.length)));
+        }
+        chunk.get(string, filled, count);
+        filled += count;
+        offset += count;
+        if (filled < stringLength) return null;
+        state = State.VALUE;
+        byte[] bytes = string;
+        string = null;
+        return new Element.BString(bytes);
+    }
+
+    /**
+     * Puts a finished value into the open container.
+     *
+     * @return the value if it is a finished top-level value, otherwise null
+     */
+    private Element add(Element value) {
+        if (stack.isEmpty()) return value;
+        Frame top = stack.get(stack.size() - 1);
+        if (top.list != null) {
+            top.list.add(value);
+        } else if (top.key == null) {
+            Element.BString key = (Element.BString) value;
+            if (top.prevKey != null && key.compareTo(top.prevKey) < 0) {
+                fail(Parser.lexicographicOrder(1, top.start));
+                return null;
+            }
+            top.key = top.prevKey = key;
+        } else {
+            top.dict.put(top.key, value);
+            top.key = null;
+        }
+        return null;
+    }
+
+    private void startNumber() {
+        numberStart = offset;
+        digits.setLength(0);
+        negative = false;
+        big = false;
+        number = 0;
+    }
+
+    private void digit(byte c) {
+        int digit = c - '0';
+        if (!big && number > (Long.MAX_VALUE - digit) / 10) big = true;
+        number = number * 10 + digit;
+        digits.append((char) c);
+    }
+
+    private boolean checkZeros(ByteBuffer chunk) {
+        if (digits.charAt(0) == '0' && (digits.length() > 1 || negative)) {
+            lexical(chunk, LexerError.NUMBER_WITH_DEAD_ZEROS, numberStart, (negative ? "-" : "") + digits);
+            return false;
+        }
+        return true;
+    }
+
+    private byte next(ByteBuffer chunk) {
+        offset++;
+        return chunk.get();
+    }
+
+    private Element unexpected(ByteBuffer chunk, byte c, long pos, TokenType... expected) {
+        TokenType actual = switch (c) {
+            case 'd' -> TokenType.DICTIONARY;
+            case 'l' -> TokenType.LIST;
+            case 'i' -> TokenType.INTEGER_BEGIN;
+            case 'e' -> TokenType.END_TYPE;
+            case ':' -> TokenType.SEPARATOR;
+            default -> null;
+        };
+        if (actual == null && !isDigit(c)) {
+            return lexical(chunk, LexerError.UNKNOWN_CHAR, pos, (char) (c & 0xFF));
+        }
+        fail(BencodeError.unexpected(1, pos, actual == null ? TokenType.STRING_BEGIN : actual, expected));
+        return null;
+    }
+
+    /**
+     * Reports a lexical error with the bytes of the current chunk around it as context.
+     */
+    private Element lexical(ByteBuffer chunk, LexerError error, long pos, Object argument) {
+        long chunkStart = offset - chunk.position();
+        int from = (int) Math.max(pos - CONTEXT - chunkStart, 0);
+        int to = (int) Math.min(pos + CONTEXT - chunkStart, chunk.limit());
+        ByteBuffer context = ByteBuffer.allocate(Math.max(to - from, 0));
+        context.put(0, chunk, from, context.capacity());
+        fail(BencodeError.lexical(error, pos, argument, context, (int) Math.max(pos - chunkStart - from, 0)));
+        return null;
+    }
+
+    private void fail(BencodeError error) {
+        failed = true;
+        errorReporter.report(error);
+    }
+
+    private static boolean isDigit(byte c) {
+        return c >= '0' && c <= '9';
+    }
+}
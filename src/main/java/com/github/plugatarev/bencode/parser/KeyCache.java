@@ -0,0 +1,77 @@
+package com.github.plugatarev.bencode.parser;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded set of canonical dictionary keys, shared by parses and safe to use from several
+ * threads. A key that is already cached comes back as the same {@link Element.BString}
+ * instance, so equal keys also compare equal by identity.
+ * <p>
+ * Keys are grouped into sets of four by hash; when a set is full, clock eviction picks
+ * the first key that was not hit since the hand last passed it. Cached keys own a copy
+ * of their bytes, so they do not keep input buffers alive.
+ */
+public final class KeyCache {
+    private static final int WAYS = 4;
+    private static final int MAX_KEY_LENGTH = 64;
+
+    private final AtomicReferenceArray<Element.BString> keys;
+    private final AtomicIntegerArray hits;
+    private final AtomicIntegerArray hands;
+    private final int setMask;
+
+    /**
+     * @param capacity number of keys to keep, rounded up to a power of two of at least four
+     */
+    public KeyCache(int capacity) {
+        int sets = Math.max(Integer.highestOneBit(Math.max(capacity - 1, 1)) * 2 / WAYS, 1);
+        keys = new AtomicReferenceArray<>(sets * WAYS);
+        hits = new AtomicIntegerArray(sets * WAYS);
+        hands = new AtomicIntegerArray(sets);
+        setMask = sets - 1;
+    }
+
+    /**
+     * @return cached key equal to the bytes between position and limit, or a new key
+     * that is cached from now on; keys longer than 64 bytes are not cached
+     */
+    public Element.BString intern(ByteBuffer bytes) {
+        if (bytes.remaining() > MAX_KEY_LENGTH) return new Element.BString(bytes);
+        int set = mix(bytes.hashCode()) & setMask;
+        int first = set * WAYS;
+        for (int i = first; i < first + WAYS; i++) {
+            Element.BString key = keys.get(i);
+            if (key != null && key.contentEquals(bytes)) {
+                if (hits.get(i) == 0) hits.set(i, 1);
+                return key;
+            }
+        }
+        byte[] copy = new byte[bytes.remaining()];
+        bytes.get(bytes.position(), copy);
+        Element.BString key = new Element.BString(copy);
+        keys.set(first + victim(set), key);
+        return key;
+    }
+
+    public Element.BString intern(String key) {
+        return intern(new Element.BString(key).bytes());
+    }
+
+    /**
+     * Second-chance sweep over the ways of the set.
+     */
+    private int victim(int set) {
+        int first = set * WAYS;
+        while (true) {
+            int way = hands.getAndIncrement(set) & (WAYS - 1);
+            if (keys.get(first + way) == null || hits.getAndSet(first + way, 0) == 0) return way;
+        }
+    }
+
+    private static int mix(int hash) {
+        hash *= 0x9E3779B9;
+        return hash ^ hash >>> 16;
+    }
+}
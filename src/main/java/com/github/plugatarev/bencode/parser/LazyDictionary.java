@@ -0,0 +1,147 @@
+package com.github.plugatarev.bencode.parser;
+
+import java.nio.ByteBuffer;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Dictionary view over the source bytes. Entries are indexed on first use; keys are
+ * looked up by binary search, which the canonical key order allows.
+ */
+class LazyDictionary extends AbstractMap<Element.BString, Element> {
+    private final ByteBuffer source;
+    private final int start;
+    private int size = -1;
+    private int[] keyStarts;
+    private int[] keyLengths;
+    private int[] valueStarts;
+    private int[] valueEnds;
+    private Element[] values;
+
+    LazyDictionary(ByteBuffer source, int start) {
+        this.source = source;
+        this.start = start;
+    }
+
+    @Override
+    public int size() {
+        index();
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    public Element get(Object key) {
+        int i = indexOf(key);
+        return i < 0 ? null : value(i);
+    }
+
+    @Override
+    public Set<Entry<Element.BString, Element>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<Element.BString, Element>> iterator() {
+                return new Iterator<>() {
+                    private int i;
+
+                    @Override
+                    public boolean hasNext() {
+                        return i < size();
+                    }
+
+                    @Override
+                    public Entry<Element.BString, Element> next() {
+                        if (!hasNext()) throw new NoSuchElementException();
+                        Entry<Element.BString, Element> entry = new SimpleImmutableEntry<>(key(i), value(i));
+                        i++;
+                        return entry;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return LazyDictionary.this.size();
+            }
+        };
+    }
+
+    private Element.BString key(int i) {
+        return new Element.BString(source.slice(keyStarts[i], keyLengths[i]));
+    }
+
+    private Element value(int i) {
+        if (values[i] == null) values[i] = LazyParser.element(source, valueStarts[i], valueEnds[i]);
+        return values[i];
+    }
+
+    private int indexOf(Object key) {
+        if (!(key instanceof Element.BString bString)) return -1;
+        index();
+        ByteBuffer bytes = bString.bytes();
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = compare(mid, bytes);
+            if (cmp < 0) low = mid + 1;
+            else if (cmp > 0) high = mid - 1;
+            else return mid;
+        }
+        return -1;
+    }
+
+    private int compare(int i, ByteBuffer key) {
+        int length = Math.min(keyLengths[i], key.remaining());
+        for (int k = 0; k < length; k++) {
+            int cmp = Integer.compare(source.get(keyStarts[i] + k) & 0xFF, key.get(key.position() + k) & 0xFF);
+            if (cmp != 0) return cmp;
+        }
+        return Integer.compare(keyLengths[i], key.remaining());
+    }
+
+    private void index() {
+        if (size >= 0) return;
+        int n = 0;
+        int[] keyStarts = new int[8];
+        int[] keyLengths = new int[8];
+        int[] valueStarts = new int[8];
+        int[] valueEnds = new int[8];
+        int pos = start + 1;
+        while (pos >= source.limit() || source.get(pos) != 'e') {
+            int colon = LazyParser.colon(source, pos);
+            int length = LazyParser.length(source, pos, colon);
+            if (n == keyStarts.length) {
+                keyStarts = Arrays.copyOf(keyStarts, n * 2);
+                keyLengths = Arrays.copyOf(keyLengths, n * 2);
+                valueStarts = Arrays.copyOf(valueStarts, n * 2);
+                valueEnds = Arrays.copyOf(valueEnds, n * 2);
+            }
+            keyStarts[n] = colon + 1;
+            keyLengths[n] = length;
+            valueStarts[n] = colon + 1 + length;
+            valueEnds[n] = LazyParser.skip(source, valueStarts[n]);
+            pos = valueEnds[n];
+            n++;
+        }
+        this.keyStarts = keyStarts;
+        this.keyLengths = keyLengths;
+        this.valueStarts = valueStarts;
+        this.valueEnds = valueEnds;
+        this.values = new Element[n];
+        for (int i = 1; i < n; i++) {
+            if (compare(i - 1, source.slice(keyStarts[i], keyLengths[i])) > 0) {
+                throw new ParserException(Parser.lexicographicOrder(1, start));
+            }
+        }
+        this.size = n;
+    }
+}
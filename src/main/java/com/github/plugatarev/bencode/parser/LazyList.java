@@ -0,0 +1,58 @@
+package com.github.plugatarev.bencode.parser;
+
+import java.nio.ByteBuffer;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * List view over the source bytes. Member offsets are indexed on first use.
+ */
+class LazyList extends AbstractList<Element> implements RandomAccess {
+    private final ByteBuffer source;
+    private final int start;
+    private int size = -1;
+    private int[] starts;
+    private int[] ends;
+    private Element[] values;
+
+    LazyList(ByteBuffer source, int start) {
+        this.source = source;
+        this.start = start;
+    }
+
+    @Override
+    public int size() {
+        index();
+        return size;
+    }
+
+    @Override
+    public Element get(int index) {
+        if (index < 0 || index >= size()) throw new IndexOutOfBoundsException(index);
+        if (values[index] == null) values[index] = LazyParser.element(source, starts[index], ends[index]);
+        return values[index];
+    }
+
+    private void index() {
+        if (size >= 0) return;
+        int n = 0;
+        int[] starts = new int[8];
+        int[] ends = new int[8];
+        int pos = start + 1;
+        while (pos >= source.limit() || source.get(pos) != 'e') {
+            if (n == starts.length) {
+                starts = Arrays.copyOf(starts, n * 2);
+                ends = Arrays.copyOf(ends, n * 2);
+            }
+            starts[n] = pos;
+            ends[n] = LazyParser.skip(source, pos);
+            pos = ends[n];
+            n++;
+        }
+        this.starts = starts;
+        this.ends = ends;
+        this.values = new Element[n];
+        this.size = n;
+    }
+}
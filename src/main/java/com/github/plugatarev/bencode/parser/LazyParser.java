@@ -0,0 +1,160 @@
+package com.github.plugatarev.bencode.parser;
+
+import com.github.plugatarev.bencode.error.BencodeError;
+import com.github.plugatarev.bencode.error.ErrorReporter;
+import com.github.plugatarev.bencode.lexer.ByteInput;
+import com.github.plugatarev.bencode.lexer.LexerError;
+import com.github.plugatarev.bencode.lexer.TokenType;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Parses on first access. Dictionaries and lists returned from here only remember
+ * where their members start; a member is parsed the first time it is read and then kept.
+ * <p>
+ * {@link #parse} checks the structure of the whole input. Errors inside values that were
+ * not read yet, such as numbers with leading zeros, are thrown as {@link ParserException}
+ * when those values are read. Lazy elements are not thread-safe.
+ */
+public class LazyParser {
+    private static final int CONTEXT = 32;
+    private static final ErrorReporter THROWING = new ErrorReporter() {
+        @Override
+        public boolean report(String message) {
+            throw new ParserException(message);
+        }
+
+        @Override
+        public boolean report(BencodeError error) {
+            throw new ParserException(error);
+        }
+
+        @Override
+        public boolean hasError() {
+            return false;
+        }
+    };
+
+    private LazyParser() {
+    }
+
+    public static Element parse(ByteBuffer buffer, ErrorReporter errorReporter) {
+        ByteBuffer source = buffer.slice();
+        if (!source.hasRemaining()) return null;
+        try {
+            int end = skip(source, 0);
+            if (end != source.limit()) throw unexpected(source, end, TokenType.EOF);
+            return element(source, 0, end);
+        } catch (ParserException e) {
+            e.reportTo(errorReporter);
+            return null;
+        }
+    }
+
+    static Element element(ByteBuffer source, int start, int end) {
+        return switch (source.get(start)) {
+            case 'd' -> new Element.BDictionary(new LazyDictionary(source, start));
+            case 'l' -> new Element.BList(new LazyList(source, start));
+            default -> Parser.parse(source.slice(start, end - start), THROWING);
+        };
+    }
+
+    /**
+     * @return offset right after the value that starts at {@code pos}
+     */
+    static int skip(ByteBuffer source, int pos) {
+        int depth = 0;
+        do {
+            if (pos >= source.limit()) throw unexpected(source, pos, TokenType.END_TYPE);
+            byte c = source.get(pos);
+            switch (c) {
+                case 'd', 'l' -> {
+                    depth++;
+                    pos++;
+                }
+                case 'e' -> {
+                    if (depth == 0) throw unexpected(source, pos);
+                    depth--;
+                    pos++;
+                }
+                case 'i' -> {
+                    pos++;
+                    while (pos < source.limit() && source.get(pos) != 'e') pos++;
+                    if (pos == source.limit()) throw unexpected(source, pos, TokenType.END_TYPE);
+                    pos++;
+                }
+                default -> {
+                    int colon = colon(source, pos);
+                    pos = colon + 1 + length(source, pos, colon);
+                }
+            }
+        } while (depth > 0);
+        return pos;
+    }
+
+    /**
+     * @return offset of the ':' that ends the length prefix of the string at {@code pos}
+     */
+    static int colon(ByteBuffer source, int pos) {
+        int i = pos;
+        while (i < source.limit() && isDigit(source.get(i))) i++;
+        if (i == pos) {
+            if (pos < source.limit() && !isToken(source.get(pos))) throw unknownChar(source, pos);
+            throw unexpected(source, pos, TokenType.STRING_BEGIN);
+        }
+        if (i == source.limit() || source.get(i) != ':') throw unexpected(source, i, TokenType.SEPARATOR);
+        return i;
+    }
+
+    static int length(ByteBuffer source, int pos, int colon) {
+        long length = 0;
+        for (int i = pos; i < colon && length <= Integer.MAX_VALUE; i++) {
+            length = length * 10 + source.get(i) - '0';
+        }
+        if (colon - pos > 1 && source.get(pos) == '0') {
+            String number = ByteInput.text(source, pos, colon);
+            throw new ParserException(lexerError(LexerError.NUMBER_WITH_DEAD_ZEROS, source, pos, number));
+        }
+        if (length > source.limit() - colon - 1) {
+            throw new ParserException(lexerError(LexerError.INCORRECT_STRING_LENGTH, source, colon + 1, length));
+        }
+        return (int) length;
+    }
+
+    static ParserException unexpected(ByteBuffer source, int pos, TokenType... expected) {
+        return unexpected(source, pos, pos, expected);
+    }
+
+    /**
+     * @param offset offset of {@code pos} in the whole input, when the source is a part of it
+     */
+    static ParserException unexpected(ByteBuffer source, int pos, long offset, TokenType... expected) {
+        TokenType actual = pos >= source.limit() ? TokenType.EOF : switch (source.get(pos)) {
+            case 'd' -> TokenType.DICTIONARY;
+            case 'l' -> TokenType.LIST;
+            case 'i' -> TokenType.INTEGER_BEGIN;
+            case 'e' -> TokenType.END_TYPE;
+            case ':' -> TokenType.SEPARATOR;
+            default -> TokenType.STRING_BEGIN;
+        };
+        return new ParserException(BencodeError.unexpected(1, actual == TokenType.EOF ? -1 : offset, actual, expected));
+    }
+
+    private static ParserException unknownChar(ByteBuffer source, int pos) {
+        return new ParserException(lexerError(LexerError.UNKNOWN_CHAR, source, pos, (char) (source.get(pos) & 0xFF)));
+    }
+
+    private static BencodeError lexerError(LexerError error, ByteBuffer source, int pos, Object obj) {
+        int from = Math.max(pos - CONTEXT, 0);
+        ByteBuffer context = source.slice(from, Math.min(pos + CONTEXT, source.limit()) - from);
+        return BencodeError.lexical(error, pos, obj, context, pos - from);
+    }
+
+    private static boolean isToken(byte c) {
+        return c == 'd' || c == 'l' || c == 'i' || c == 'e' || c == ':';
+    }
+
+    private static boolean isDigit(byte c) {
+        return c >= '0' && c <= '9';
+    }
+}
@@ -0,0 +1,277 @@
+package com.github.plugatarev.bencode.parser;
+
+import com.github.plugatarev.bencode.error.BencodeError;
+import com.github.plugatarev.bencode.error.ErrorReporter;
+import com.github.plugatarev.bencode.lexer.ByteInput;
+import com.github.plugatarev.bencode.lexer.TokenType;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Parses a document whose top-level value is a large list on several cores. A structural
+ * pre-scan, the one {@link LazyParser} uses, finds where the members start without
+ * building anything. Runs of members are then parsed concurrently by the single-pass
+ * parser, and the results are put back in document order.
+ * <p>
+ * Files are scanned through mapped windows and every run is mapped on its own, so their
+ * size is not limited by a single mapping. Any other top-level value is parsed on the
+ * calling thread. Only the first error is reported, with offsets into the whole input.
+ */
+public final class ParallelParser {
+    private static final int MIN_CHUNK = 1 << 16;
+    private static final int MAX_CHUNK = 1 << 28;
+    private static final int CHUNKS_PER_THREAD = 4;
+    private static final int WINDOW_SIZE = 1 << 30;
+
+    private ParallelParser() {
+    }
+
+    public static Element parse(ByteBuffer buffer, ErrorReporter errorReporter) {
+        return parse(buffer, errorReporter, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Reads the buffer from its position to its limit without moving them.
+     */
+    public static Element parse(ByteBuffer buffer, ErrorReporter errorReporter, ForkJoinPool pool) {
+        ByteBuffer source = buffer.slice();
+        if (!source.hasRemaining() || source.get(0) != 'l') return Parser.parse(source, errorReporter);
+        return parse((from, length) -> source.slice((int) from, length), source.limit(), Integer.MAX_VALUE,
+                errorReporter, pool);
+    }
+
+    public static Element parse(FileChannel file, ErrorReporter errorReporter, ForkJoinPool pool) throws IOException {
+        return parse(file, errorReporter, pool, WINDOW_SIZE);
+    }
+
+    /**
+     * @param windowSize bytes mapped at a time by the pre-scan; grown for a member that does not fit
+     */
+    public static Element parse(FileChannel file, ErrorReporter errorReporter, ForkJoinPool pool, int windowSize)
+            throws IOException {
+        long size = file.size();
+        if (size == 0 || map(file, 0, 1).get(0) != 'l') {
+            return Parser.parse(ByteInput.map(file, windowSize), errorReporter);
+        }
+        try {
+            return parse((from, length) -> map(file, from, length), size, windowSize, errorReporter, pool);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static ByteBuffer map(FileChannel file, long from, int length) {
+        try {
+            return file.map(FileChannel.MapMode.READ_ONLY, from, length);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Gives the bytes of a range of the input.
+     */
+    private interface Source {
+        ByteBuffer window(long from, int length);
+    }
+
+    private static Element parse(Source source, long size, int windowSize, ErrorReporter errorReporter,
+                                 ForkJoinPool pool) {
+        long target = Math.min(MAX_CHUNK, Math.max(MIN_CHUNK, size / (pool.getParallelism() * CHUNKS_PER_THREAD)));
+        Chunks chunks;
+        try {
+            chunks = scan(source, size, windowSize, target, errorReporter);
+        } catch (ParserException e) {
+            e.reportTo(errorReporter);
+            return null;
+        }
+        if (chunks == null) return null;
+        Element[] members = new Element[chunks.count[chunks.size]];
+        Recorder[] errors = new Recorder[chunks.size];
+        pool.invoke(new ChunkTask(source, chunks, members, errors, 0, chunks.size));
+        for (Recorder recorder : errors) {
+            if (recorder != null) {
+                recorder.replay(errorReporter);
+                return null;
+            }
+        }
+        return new Element.BList(Arrays.asList(members));
+    }
+
+    /**
+     * Member boundaries grouped into runs of about {@code target} bytes: run {@code i}
+     * spans {@code offsets[i]} to {@code offsets[i + 1]} and its first member has the
+     * index {@code count[i]}.
+     */
+    private static final class Chunks {
+        private long[] offsets = new long[16];
+        private int[] count = new int[16];
+        private int size;
+
+        private void add(long offset, int members) {
+            if (size + 1 == offsets.length) {
+                offsets = Arrays.copyOf(offsets, offsets.length * 2);
+                count = Arrays.copyOf(count, count.length * 2);
+            }
+            offsets[size] = offset;
+            count[size] = members;
+            size++;
+        }
+    }
+
+    /**
+     * @return the runs, or null if an error was reported
+     */
+    private static Chunks scan(Source source, long size, int windowSize, long target, ErrorReporter errorReporter) {
+        Chunks chunks = new Chunks();
+        long pos = 1;
+        long base = pos;
+        ByteBuffer window = source.window(base, (int) Math.min(windowSize, size - base));
+        int members = 0;
+        long chunkStart = pos;
+        while (true) {
+            if (pos >= size) {
+                throw new ParserException(BencodeError.unexpected(1, -1, TokenType.EOF, TokenType.END_TYPE));
+            }
+            if (pos - base >= window.limit()) {
+                base = pos;
+                window = source.window(base, (int) Math.min(windowSize, size - base));
+            }
+            int start = (int) (pos - base);
+            if (window.get(start) == 'e') break;
+            long end;
+            try {
+                end = base + LazyParser.skip(window, start);
+            } catch (ParserException e) {
+                if (base + window.limit() == size || !atEnd(e)) {
+                    reportMember(window, start, pos, e, errorReporter);
+                    return null;
+                }
+                // the member goes on past the window: map one that starts with it, larger if it already did
+                long length = base == pos ? 2L * window.limit() : windowSize;
+                if (base == pos && window.limit() == Integer.MAX_VALUE) {
+                    throw new ParserException("Member at offset " + pos + " does not fit in one mapping");
+                }
+                base = pos;
+                window = source.window(base, (int) Math.min(Math.min(length, Integer.MAX_VALUE), size - base));
+                continue;
+            }
+            if (pos == chunkStart) chunks.add(pos, members);
+            pos = end;
+            members++;
+            if (pos - chunkStart >= target) chunkStart = pos;
+        }
+        if (pos + 1 != size) throw LazyParser.unexpected(source.window(pos + 1, 1), 0, pos + 1, TokenType.EOF);
+        // the end of the last run
+        chunks.offsets[chunks.size] = pos;
+        chunks.count[chunks.size] = members;
+        return chunks;
+    }
+
+    /**
+     * @return true for the errors the scan gives when a value is cut off by the end of its window
+     */
+    private static boolean atEnd(ParserException e) {
+        BencodeError error = e.error();
+        return error != null && (error.actual() == TokenType.EOF
+                || error.code() == BencodeError.Code.INCORRECT_STRING_LENGTH);
+    }
+
+    /**
+     * Reports the error of a member that the scan rejected by parsing it, so the offsets
+     * count from the start of the input.
+     */
+    private static void reportMember(ByteBuffer window, int start, long offset, ParserException e,
+                                     ErrorReporter errorReporter) {
+        Recorder recorder = new Recorder();
+        StreamParser.parseSequence(ByteInput.wrap(window.slice(start, window.limit() - start), offset), recorder);
+        if (recorder.hasError()) {
+            recorder.replay(errorReporter);
+        } else {
+            e.reportTo(errorReporter);
+        }
+    }
+
+    private static final class ChunkTask extends RecursiveAction {
+        private final Source source;
+        private final Chunks chunks;
+        private final Element[] members;
+        private final Recorder[] errors;
+        private final int from;
+        private final int to;
+
+        ChunkTask(Source source, Chunks chunks, Element[] members, Recorder[] errors, int from, int to) {
+            this.source = source;
+            this.chunks = chunks;
+            this.members = members;
+            this.errors = errors;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new ChunkTask(source, chunks, members, errors, from, middle),
+                        new ChunkTask(source, chunks, members, errors, middle, to));
+                return;
+            }
+            if (from == to) return;
+            long start = chunks.offsets[from];
+            ByteBuffer chunk = source.window(start, (int) (chunks.offsets[from + 1] - start));
+            Recorder recorder = new Recorder();
+            List<Element> values = StreamParser.parseSequence(ByteInput.wrap(chunk, start), recorder);
+            if (values == null) {
+                errors[from] = recorder;
+                return;
+            }
+            int index = chunks.count[from];
+            for (Element value : values) {
+                members[index++] = value;
+            }
+        }
+    }
+
+    /**
+     * Keeps the errors of one chunk until the chunks before it are known to be valid.
+     */
+    private static final class Recorder implements ErrorReporter {
+        private final List<Object> reports = new ArrayList<>();
+
+        @Override
+        public boolean report(String message) {
+            reports.add(message);
+            return false;
+        }
+
+        @Override
+        public boolean report(BencodeError error) {
+            reports.add(error);
+            return false;
+        }
+
+        @Override
+        public boolean hasError() {
+            return !reports.isEmpty();
+        }
+
+        void replay(ErrorReporter errorReporter) {
+            for (Object report : reports) {
+                if (report instanceof BencodeError error) {
+                    errorReporter.report(error);
+                } else {
+                    errorReporter.report((String) report);
+                }
+            }
+        }
+    }
+}
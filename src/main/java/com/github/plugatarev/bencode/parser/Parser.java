@@ -1,9 +1,16 @@
 package com.github.plugatarev.bencode.parser;
 
+import com.github.plugatarev.bencode.error.BencodeError;
 import com.github.plugatarev.bencode.error.ErrorReporter;
+import com.github.plugatarev.bencode.lexer.ByteInput;
+import com.github.plugatarev.bencode.lexer.ByteLexer;
 import com.github.plugatarev.bencode.lexer.Token;
 import com.github.plugatarev.bencode.lexer.TokenType;
 
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
 import java.util.*;
 
 public class Parser {
@@ -21,13 +28,55 @@ public class Parser {
         return parser.parse();
     }
 
+    public static Element parse(InputStream in, ErrorReporter errorReporter) {
+        return parse(ByteInput.of(in), errorReporter);
+    }
+
+    public static Element parse(ReadableByteChannel channel, ErrorReporter errorReporter) {
+        return parse(ByteInput.of(channel), errorReporter);
+    }
+
+    public static Element parse(ByteBuffer buffer, ErrorReporter errorReporter) {
+        return parse(ByteInput.wrap(buffer), errorReporter);
+    }
+
+    /**
+     * Parses straight from the input without building a token list first.
+     */
+    public static Element parse(ByteInput in, ErrorReporter errorReporter) {
+        return StreamParser.parse(in, errorReporter, null, null);
+    }
+
+    /**
+     * Same as {@link #parse(ByteInput, ErrorReporter)}, with dictionary keys taken from the cache.
+     */
+    public static Element parse(ByteInput in, ErrorReporter errorReporter, KeyCache keyCache) {
+        return StreamParser.parse(in, errorReporter, keyCache, null);
+    }
+
+    /**
+     * Same as {@link #parse(ByteInput, ErrorReporter)}, reporting the source range of every value.
+     */
+    public static Element parse(ByteInput in, ErrorReporter errorReporter, SpanListener spanListener) {
+        return StreamParser.parse(in, errorReporter, null, spanListener);
+    }
+
+    /**
+     * Same as {@link #parse(ByteInput, ErrorReporter)} with both a key cache and a span listener,
+     * either of which may be null.
+     */
+    public static Element parse(ByteInput in, ErrorReporter errorReporter, KeyCache keyCache,
+                                SpanListener spanListener) {
+        return StreamParser.parse(in, errorReporter, keyCache, spanListener);
+    }
+
     private Element parse() {
         Element element = null;
         while (!matches(TokenType.EOF)) {
             try {
                 element = parseElement();
             } catch (ParserException e) {
-                if (!errorReporter.report(e.getMessage())) {
+                if (!e.reportTo(errorReporter)) {
                     return null;
                 }
             }
@@ -42,7 +91,7 @@ public class Parser {
             case LIST -> parseList();
             case INTEGER_BEGIN -> parseInteger();
             case STRING_BEGIN -> parseString();
-            default -> throw new ParserException(unexpectedToken(tokens.get(pos)));
+            default -> throw new ParserException(unexpectedToken(advance()));
         };
     }
 
@@ -58,10 +107,11 @@ public class Parser {
     }
 
     public static boolean isCorrectOrder(Map<Element.BString, Element> dict){
+        if (dict instanceof SortedDictionary sorted) return sorted.isSorted();
         Element.BString prev = null;
         for (Element.BString key : dict.keySet()){
             if (prev != null){
-                if (key.str().compareTo(prev.str()) < 0) return false;
+                if (key.compareTo(prev) < 0) return false;
             }
             prev = key;
         }
@@ -69,7 +119,7 @@ public class Parser {
     }
 
     private Element.BDictionary parseDictionary() {
-        Map<Element.BString, Element> dict = new LinkedHashMap<>();
+        SortedDictionary.Builder dict = new SortedDictionary.Builder();
         Token start = advance();
         while (!matches(TokenType.END_TYPE)) {
             Element.BString key = parseString();
@@ -77,14 +127,15 @@ public class Parser {
             dict.put(key, value);
         }
         advance();
-        if (!isCorrectOrder(dict)) throw new ParserException(lexicographicOrder(start));
-        return new Element.BDictionary(dict);
+        if (!dict.isSorted()) throw new ParserException(lexicographicOrder(start.nLine(), start.pos()));
+        return new Element.BDictionary(dict.build());
     }
 
     private Element.BString parseString() {
         consume(TokenType.STRING_BEGIN);
         consume(TokenType.SEPARATOR);
         Token str = consume(TokenType.STRING);
+        if (str.value() instanceof ByteBuffer bytes) return new Element.BString(bytes);
         return new Element.BString((String) str.value());
     }
 
@@ -92,7 +143,8 @@ public class Parser {
         consume(TokenType.INTEGER_BEGIN);
         Token token = consume(TokenType.INTEGER);
         consume(TokenType.END_TYPE);
-        return new Element.BInteger((Integer) token.value());
+        if (token.value() instanceof BigInteger big) return new Element.BInteger(big);
+        return new Element.BInteger(((Number) token.value()).longValue());
     }
 
     private boolean matches(TokenType first, TokenType... rest) {
@@ -119,27 +171,15 @@ public class Parser {
         return token;
     }
 
-    private static String lexicographicOrder(Token token){
-        int pos = token.pos();
-        String position = pos == -1 ?
-                "End of line " + token.nLine() :
-                "Line " + token.nLine() + ", position: " + ++pos;
-        return """
-                %s
-                The lexicographic order in the dictionary is broken
-                """.formatted(position);
+    static BencodeError lexicographicOrder(int nLine, long pos){
+        return BencodeError.keyOrder(nLine, pos);
     }
 
-    private static String unexpectedToken(Token token, TokenType... expected) {
-        int pos = token.pos();
-        String position = pos == -1 ?
-                "End of line " + token.nLine() :
-                "Line " + token.nLine() + ", position: " + pos;
+    static BencodeError unexpectedToken(Token token, TokenType... expected) {
+        return BencodeError.unexpected(token.nLine(), token.pos(), token.tokenType(), expected);
+    }
 
-        return """
-                %s
-                Expected tokens: %s,
-                Actual: %s
-                """.formatted(position, Arrays.toString(expected), token.tokenType());
+    static BencodeError unexpectedToken(ByteLexer lexer, TokenType... expected) {
+        return BencodeError.unexpected(1, lexer.start(), lexer.type(), expected);
     }
-}
\ No newline at end of file
+}
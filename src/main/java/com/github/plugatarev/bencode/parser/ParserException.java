@@ -1,7 +1,63 @@
 package com.github.plugatarev.bencode.parser;
 
+import com.github.plugatarev.bencode.error.BencodeError;
+import com.github.plugatarev.bencode.error.ErrorKind;
+import com.github.plugatarev.bencode.error.ErrorReporter;
+
+/**
+ * Carries a {@link BencodeError} up to the reporting code. It is thrown for every
+ * rejected input, so it has no stack trace and renders its message only when asked.
+ */
 public class ParserException extends RuntimeException {
+    private final BencodeError error;
+    private final boolean reported;
+
     ParserException(String message) {
         super(message);
+        this.error = null;
+        this.reported = false;
+    }
+
+    ParserException(BencodeError error) {
+        this(error, false);
+    }
+
+    private ParserException(BencodeError error, boolean reported) {
+        super(null, null, false, false);
+        this.error = error;
+        this.reported = reported;
+    }
+
+    /**
+     * For a lexical error that the lexer has already passed to the reporter.
+     */
+    static ParserException reported(BencodeError error) {
+        return new ParserException(error, true);
+    }
+
+    /**
+     * @return the structured error, or null if there is only a message
+     */
+    public BencodeError error() {
+        return error;
+    }
+
+    public ErrorKind kind() {
+        return error == null ? ErrorKind.SYNTAX : error.kind();
+    }
+
+    @Override
+    public String getMessage() {
+        return error == null ? super.getMessage() : error.message();
+    }
+
+    /**
+     * Passes the error to the reporter, unless the lexer already did.
+     *
+     * @return false if no more errors can be reported
+     */
+    public boolean reportTo(ErrorReporter reporter) {
+        if (reported) return true;
+        return error == null ? reporter.report(kind(), getMessage()) : reporter.report(error);
     }
 }
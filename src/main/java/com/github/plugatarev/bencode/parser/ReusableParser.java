@@ -0,0 +1,58 @@
+package com.github.plugatarev.bencode.parser;
+
+import com.github.plugatarev.bencode.error.ErrorReporter;
+import com.github.plugatarev.bencode.lexer.ByteInput;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Parser for many small buffers in a row, such as tracker responses. The input cursor,
+ * the lexer and the scratch space of open containers are kept between calls, so a steady
+ * stream of small messages allocates little more than the results. Nothing of the last
+ * buffer is kept after a call, and scratch space that grew large is dropped.
+ * <p>
+ * An instance is not thread-safe; {@link #forCurrentThread} hands out one per thread.
+ */
+public final class ReusableParser {
+    private static final ThreadLocal<ReusableParser> POOL = ThreadLocal.withInitial(ReusableParser::new);
+    private static final ByteBuffer EMPTY = ByteBuffer.allocate(0);
+
+    private final ByteInput in = ByteInput.wrap(EMPTY);
+    private final StreamParser parser;
+    private boolean busy;
+
+    public ReusableParser() {
+        this(null);
+    }
+
+    /**
+     * @param keyCache source of dictionary keys, may be null
+     */
+    public ReusableParser(KeyCache keyCache) {
+        this.parser = StreamParser.reusable(keyCache);
+    }
+
+    /**
+     * @return parser owned by the calling thread
+     */
+    public static ReusableParser forCurrentThread() {
+        return POOL.get();
+    }
+
+    /**
+     * Same as {@link Parser#parse(ByteBuffer, ErrorReporter)}. A call made while the parser
+     * is busy, for example from the error reporter, gets a parser of its own.
+     */
+    public Element parse(ByteBuffer buffer, ErrorReporter errorReporter) {
+        if (busy) return Parser.parse(buffer, errorReporter);
+        busy = true;
+        try {
+            in.reset(buffer);
+            return parser.reparse(in, errorReporter);
+        } finally {
+            parser.release();
+            in.reset(EMPTY);
+            busy = false;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.github.plugatarev.bencode.parser;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Immutable dictionary in two parallel arrays, keys in canonical order. Lookups are
+ * binary searches and an entry costs two array slots instead of a hash map node.
+ */
+public final class SortedDictionary extends AbstractMap<Element.BString, Element> {
+    private static final Element.BString[] NO_KEYS = {};
+    private static final Element[] NO_VALUES = {};
+
+    private final Element.BString[] keys;
+    private final Element[] values;
+    private final int size;
+    private final boolean sorted;
+
+    private SortedDictionary(Element.BString[] keys, Element[] values, int size, boolean sorted) {
+        this.keys = keys;
+        this.values = values;
+        this.size = size;
+        this.sorted = sorted;
+    }
+
+    /**
+     * Collects entries in the order they are read and checks the order as they come.
+     */
+    public static final class Builder {
+        private Element.BString[] keys = NO_KEYS;
+        private Element[] values = NO_VALUES;
+        private int size;
+        private boolean sorted = true;
+
+        /**
+         * Adds the entry; a key equal to the previous one replaces its value.
+         *
+         * @return false if the key is smaller than the previous one
+         */
+        public boolean put(Element.BString key, Element value) {
+            if (size > 0) {
+                int cmp = key.compareTo(keys[size - 1]);
+                if (cmp == 0) {
+                    values[size - 1] = value;
+                    return true;
+                }
+                if (cmp < 0) sorted = false;
+            }
+            if (size == keys.length) {
+                int capacity = Math.max(4, size * 2);
+                keys = Arrays.copyOf(keys, capacity);
+                values = Arrays.copyOf(values, capacity);
+            }
+            keys[size] = key;
+            values[size] = value;
+            size++;
+            return sorted;
+        }
+
+        public boolean isSorted() {
+            return sorted;
+        }
+
+        /**
+         * Builds a dictionary with copies of the entries and empties the builder,
+         * which keeps its capacity for the next one.
+         */
+        SortedDictionary buildCopy() {
+            SortedDictionary dictionary = size == 0 ?
+                    new SortedDictionary(NO_KEYS, NO_VALUES, 0, true) :
+                    new SortedDictionary(Arrays.copyOf(keys, size), Arrays.copyOf(values, size), size, sorted);
+            clear();
+            return dictionary;
+        }
+
+        void clear() {
+            Arrays.fill(keys, 0, size, null);
+            Arrays.fill(values, 0, size, null);
+            size = 0;
+            sorted = true;
+        }
+
+        int capacity() {
+            return keys.length;
+        }
+
+        /**
+         * Builds the dictionary and empties the builder. Full arrays are handed over rather
+         * than copied, so the builder starts the next dictionary with new ones.
+         */
+        public SortedDictionary build() {
+            if (size == 0) return new SortedDictionary(NO_KEYS, NO_VALUES, 0, true);
+            Element.BString[] k = size == keys.length ? keys : Arrays.copyOf(keys, size);
+            Element[] v = size == values.length ? values : Arrays.copyOf(values, size);
+            SortedDictionary dictionary = new SortedDictionary(k, v, size, sorted);
+            keys = NO_KEYS;
+            values = NO_VALUES;
+            size = 0;
+            sorted = true;
+            return dictionary;
+        }
+    }
+
+    /**
+     * @return false if the keys came out of order; lookups then scan linearly
+     */
+    public boolean isSorted() {
+        return sorted;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    public Element get(Object key) {
+        int i = indexOf(key);
+        return i < 0 ? null : values[i];
+    }
+
+    @Override
+    public Set<Entry<Element.BString, Element>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<Element.BString, Element>> iterator() {
+                return new Iterator<>() {
+                    private int i;
+
+                    @Override
+                    public boolean hasNext() {
+                        return i < size;
+                    }
+
+                    @Override
+                    public Entry<Element.BString, Element> next() {
+                        if (i >= size) throw new NoSuchElementException();
+                        Entry<Element.BString, Element> entry = Map.entry(keys[i], values[i]);
+                        i++;
+                        return entry;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    private int indexOf(Object key) {
+        if (!(key instanceof Element.BString bString)) return -1;
+        if (!sorted) {
+            for (int i = 0; i < size; i++) {
+                if (keys[i].equals(bString)) return i;
+            }
+            return -1;
+        }
+        return Math.max(Arrays.binarySearch(keys, 0, size, bString), -1);
+    }
+}
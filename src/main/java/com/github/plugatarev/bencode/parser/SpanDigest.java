@@ -0,0 +1,50 @@
+package com.github.plugatarev.bencode.parser;
+
+import com.github.plugatarev.bencode.lexer.ByteInput;
+
+import java.security.MessageDigest;
+
+/**
+ * Hashes the exact source bytes of one entry of the top-level dictionary while it is
+ * parsed, such as the {@code info} dictionary of a torrent. The bytes are fed to the digest
+ * as the input reads them, so channel input is not buffered or read twice. The value may be
+ * of any type, since capturing starts before its first byte is read.
+ */
+public final class SpanDigest implements SpanListener {
+    private final ByteInput in;
+    private final MessageDigest digest;
+    private final Element.BString key;
+    private byte[] result;
+
+    /**
+     * @param in the input that is given to the parser together with this listener
+     */
+    public SpanDigest(ByteInput in, MessageDigest digest, String key) {
+        this.in = in;
+        this.digest = digest;
+        this.key = new Element.BString(key);
+    }
+
+    @Override
+    public void enter(int depth, Element.BString key, long start) {
+        if (depth == 1 && this.key.equals(key)) {
+            digest.reset();
+            in.capture(digest, start);
+        }
+    }
+
+    @Override
+    public void span(Element element, int depth, Element.BString key, long start, long end) {
+        if (depth == 1 && this.key.equals(key)) {
+            in.endCapture(end);
+            result = digest.digest();
+        }
+    }
+
+    /**
+     * @return digest of the entry value, or null if the document has no such entry
+     */
+    public byte[] digest() {
+        return result;
+    }
+}
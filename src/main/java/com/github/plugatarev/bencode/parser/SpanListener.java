@@ -0,0 +1,23 @@
+package com.github.plugatarev.bencode.parser;
+
+/**
+ * Receives the source byte range of every parsed value. Offsets are absolute input offsets,
+ * the end is exclusive. Dictionary keys are not reported on their own.
+ */
+public interface SpanListener {
+    /**
+     * Called when a value starts. For a dictionary value it is called before any byte of the
+     * value is read, so the start is still buffered; for list members and the top-level value
+     * it is called once their first token is read.
+     *
+     * @param depth number of containers around the value
+     * @param key   dictionary key of the value, null for list members and the top-level value
+     */
+    default void enter(int depth, Element.BString key, long start) {
+    }
+
+    /**
+     * Called when a value is complete, before the input moves past its last byte.
+     */
+    void span(Element element, int depth, Element.BString key, long start, long end);
+}
@@ -0,0 +1,244 @@
+package com.github.plugatarev.bencode.parser;
+
+import com.github.plugatarev.bencode.error.ErrorReporter;
+import com.github.plugatarev.bencode.lexer.ByteInput;
+import com.github.plugatarev.bencode.lexer.ByteLexer;
+import com.github.plugatarev.bencode.lexer.TokenType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Single-pass variant of {@link Parser} that pulls tokens from a {@link ByteLexer}
+ * one at a time instead of walking a prepared token list.
+ */
+class StreamParser {
+    /**
+     * Scratch kept between parses of a reusable parser: entries per container and nesting levels.
+     */
+    private static final int MAX_SCRATCH = 1024;
+    private static final int MAX_SCRATCH_DEPTH = 64;
+
+    private final ByteLexer lexer;
+    private final KeyCache keyCache;
+    private final SpanListener spanListener;
+    private ErrorReporter errorReporter;
+    private int depth;
+    private final List<List<Element>> lists = new ArrayList<>();
+    private final List<SortedDictionary.Builder> dictionaries = new ArrayList<>();
+
+    private StreamParser(ByteInput in, ErrorReporter errorReporter, KeyCache keyCache, SpanListener spanListener) {
+        this.lexer = new ByteLexer(in, errorReporter);
+        this.errorReporter = errorReporter;
+        this.keyCache = keyCache;
+        this.spanListener = spanListener;
+    }
+
+    static Element parse(ByteInput in, ErrorReporter errorReporter, KeyCache keyCache, SpanListener spanListener) {
+        StreamParser parser = new StreamParser(in, errorReporter, keyCache, spanListener);
+        return parser.parse();
+    }
+
+    /**
+     * @return parser without input, for {@link #reparse}
+     */
+    static StreamParser reusable(KeyCache keyCache) {
+        return new StreamParser(null, null, keyCache, null);
+    }
+
+    /**
+     * Parses another input, keeping the scratch space of the previous parse.
+     */
+    Element reparse(ByteInput in, ErrorReporter errorReporter) {
+        this.errorReporter = errorReporter;
+        lexer.reset(in, errorReporter);
+        return parse();
+    }
+
+    /**
+     * Drops every reference to the last input and reporter, including elements left in scratch
+     * by an error, and scratch that grew past {@link #MAX_SCRATCH}.
+     */
+    void release() {
+        errorReporter = null;
+        lexer.reset(null, null);
+        while (lists.size() > MAX_SCRATCH_DEPTH) lists.remove(lists.size() - 1);
+        while (dictionaries.size() > MAX_SCRATCH_DEPTH) dictionaries.remove(dictionaries.size() - 1);
+        for (int i = 0; i < lists.size(); i++) {
+            releaseList(i);
+        }
+        for (int i = 0; i < dictionaries.size(); i++) {
+            SortedDictionary.Builder dict = dictionaries.get(i);
+            dict.clear();
+            if (dict.capacity() > MAX_SCRATCH) dictionaries.set(i, new SortedDictionary.Builder());
+        }
+    }
+
+    private void releaseList(int level) {
+        List<Element> values = lists.get(level);
+        if (values.size() > MAX_SCRATCH) lists.set(level, new ArrayList<>());
+        else values.clear();
+    }
+
+    /**
+     * Parses values one after another up to the end of the input; stops at the first error.
+     *
+     * @return the values, or null if an error was reported
+     */
+    static List<Element> parseSequence(ByteInput in, ErrorReporter errorReporter) {
+        StreamParser parser = new StreamParser(in, errorReporter, null, null);
+        List<Element> values = new ArrayList<>();
+        parser.lexer.next();
+        try {
+            while (!parser.matches(TokenType.EOF) && !errorReporter.hasError()) {
+                values.add(parser.parseElement(null));
+            }
+        } catch (ParserException e) {
+            e.reportTo(errorReporter);
+        }
+        return errorReporter.hasError() ? null : values;
+    }
+
+    private Element parse() {
+        Element element = null;
+        lexer.next();
+        while (!matches(TokenType.EOF)) {
+            try {
+                depth = 0;
+                element = parseElement(null);
+            } catch (ParserException e) {
+                if (!e.reportTo(errorReporter)) {
+                    return null;
+                }
+            }
+        }
+        return errorReporter.hasError() ? null : element;
+    }
+
+    /**
+     * @param key dictionary key of the value, null for list members and the top-level value
+     */
+    private Element parseElement(Element.BString key) {
+        long start = lexer.start();
+        if (spanListener != null && key == null) spanListener.enter(depth, null, start);
+        return switch (lexer.type()) {
+            case DICTIONARY -> parseDictionary(key, start);
+            case LIST -> parseList(key, start);
+            case INTEGER_BEGIN -> parseInteger(key, start);
+            case STRING_BEGIN -> parseString(key, start);
+            default -> {
+                ParserException e = new ParserException(Parser.unexpectedToken(lexer));
+                advance();
+                throw e;
+            }
+        };
+    }
+
+    private Element.BList parseList(Element.BString key, long start) {
+        List<Element> values = scratchList();
+        advance();
+        depth++;
+        while (!matches(TokenType.END_TYPE)) {
+            Element newMember = parseElement(null);
+            values.add(newMember);
+        }
+        depth--;
+        Element.BList list = new Element.BList(new ArrayList<>(values));
+        releaseList(depth);
+        return finish(list, key, start);
+    }
+
+    private Element.BDictionary parseDictionary(Element.BString key, long start) {
+        SortedDictionary.Builder dict = scratchDictionary();
+        advance();
+        depth++;
+        while (!matches(TokenType.END_TYPE)) {
+            Element.BString entryKey = parseKey();
+            Element value = parseElement(entryKey);
+            dict.put(entryKey, value);
+        }
+        depth--;
+        if (!dict.isSorted()) {
+            advance();
+            throw new ParserException(Parser.lexicographicOrder(1, start));
+        }
+        return finish(new Element.BDictionary(dict.buildCopy()), key, start);
+    }
+
+    /**
+     * Containers are collected in scratch space kept per nesting level, and only the
+     * finished value gets arrays of its own. Scratch left over by an error is cleared here.
+     */
+    private List<Element> scratchList() {
+        while (depth >= lists.size()) lists.add(new ArrayList<>());
+        List<Element> values = lists.get(depth);
+        values.clear();
+        return values;
+    }
+
+    private SortedDictionary.Builder scratchDictionary() {
+        while (depth >= dictionaries.size()) dictionaries.add(new SortedDictionary.Builder());
+        SortedDictionary.Builder dict = dictionaries.get(depth);
+        dict.clear();
+        return dict;
+    }
+
+    private Element.BString parseKey() {
+        consume(TokenType.STRING_BEGIN);
+        consume(TokenType.SEPARATOR);
+        expect(TokenType.STRING);
+        Element.BString str = keyCache != null ? keyCache.intern(lexer.bytes()) : new Element.BString(lexer.bytes());
+        // the value starts right after its key and is still buffered until the next token is read
+        if (spanListener != null) spanListener.enter(depth, str, lexer.end());
+        advance();
+        return str;
+    }
+
+    private Element.BString parseString(Element.BString key, long start) {
+        consume(TokenType.STRING_BEGIN);
+        consume(TokenType.SEPARATOR);
+        expect(TokenType.STRING);
+        return finish(new Element.BString(lexer.bytes()), key, start);
+    }
+
+    private Element.BInteger parseInteger(Element.BString key, long start) {
+        consume(TokenType.INTEGER_BEGIN);
+        expect(TokenType.INTEGER);
+        Element.BInteger integer = lexer.bigValue() != null ?
+                new Element.BInteger(lexer.bigValue()) :
+                new Element.BInteger(lexer.longValue());
+        advance();
+        expect(TokenType.END_TYPE);
+        return finish(integer, key, start);
+    }
+
+    /**
+     * Reports the span of the value while its last token is current, then moves past it.
+     */
+    private <T extends Element> T finish(T element, Element.BString key, long start) {
+        if (spanListener != null) spanListener.span(element, depth, key, start, lexer.end());
+        advance();
+        return element;
+    }
+
+    private boolean matches(TokenType expected) {
+        return lexer.type() == expected;
+    }
+
+    private void advance() {
+        if (lexer.type() != TokenType.EOF) lexer.next();
+    }
+
+    private void expect(TokenType expected) {
+        if (lexer.type() != expected) {
+            ParserException e = new ParserException(Parser.unexpectedToken(lexer, expected));
+            advance();
+            throw e;
+        }
+    }
+
+    private void consume(TokenType expected) {
+        expect(expected);
+        advance();
+    }
+}
@@ -0,0 +1,322 @@
+package com.github.plugatarev.bencode.parser;
+
+import com.github.plugatarev.bencode.error.ErrorReporter;
+import com.github.plugatarev.bencode.lexer.ByteInput;
+import com.github.plugatarev.bencode.lexer.ByteLexer;
+import com.github.plugatarev.bencode.lexer.TokenType;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compact structural index of a document. Every value is a node of two longs in a single
+ * array: the first holds the type and the byte offset of the value, the second holds the
+ * string length, the integer value, or for containers the index of the node after the
+ * container, so a whole subtree is skipped in O(1).
+ * <p>
+ * Nodes are numbered in document order starting with the root at 0; the members of a
+ * container follow it directly, and a dictionary stores each key node right before its value.
+ */
+public final class Tape {
+    public enum Type {
+        DICTIONARY,
+        LIST,
+        STRING,
+        INTEGER
+    }
+
+    private static final int BIG_INTEGER = 4;
+    private static final int TYPE_SHIFT = 56;
+    private static final long OFFSET_MASK = (1L << TYPE_SHIFT) - 1;
+    private static final Type[] TYPES = Type.values();
+
+    private final ByteBuffer source;
+    private final long[] tape;
+    private final int size;
+
+    private Tape(ByteBuffer source, long[] tape, int size) {
+        this.source = source;
+        this.tape = tape;
+        this.size = size;
+    }
+
+    public static Tape parse(ByteBuffer buffer, ErrorReporter errorReporter) {
+        ByteBuffer source = buffer.slice();
+        Builder builder = new Builder(source, errorReporter);
+        try {
+            return builder.build();
+        } catch (ParserException e) {
+            e.reportTo(errorReporter);
+            return null;
+        }
+    }
+
+    /**
+     * @return number of nodes
+     */
+    public int size() {
+        return size;
+    }
+
+    public int root() {
+        return 0;
+    }
+
+    public Type type(int node) {
+        int type = (int) (tape[2 * node] >>> TYPE_SHIFT);
+        return type == BIG_INTEGER ? Type.INTEGER : TYPES[type];
+    }
+
+    /**
+     * @return byte offset of the value; for strings the offset of the first payload byte
+     */
+    public long offset(int node) {
+        return tape[2 * node] & OFFSET_MASK;
+    }
+
+    /**
+     * @return node that follows the value and all of its members
+     */
+    public int next(int node) {
+        return switch (type(node)) {
+            case DICTIONARY, LIST -> (int) tape[2 * node + 1];
+            default -> node + 1;
+        };
+    }
+
+    /**
+     * @return first member of a container, equal to {@link #next} when it is empty
+     */
+    public int firstChild(int node) {
+        return node + 1;
+    }
+
+    /**
+     * @return number of members of a list, or of entries of a dictionary
+     */
+    public int count(int container) {
+        int count = 0;
+        for (int child = firstChild(container); child < next(container); child = next(child)) {
+            count++;
+        }
+        return type(container) == Type.DICTIONARY ? count / 2 : count;
+    }
+
+    /**
+     * @return value node stored under the key, or -1 if the dictionary has no such key
+     */
+    public int get(int dictionary, Element.BString key) {
+        ByteBuffer bytes = key.bytes();
+        int end = next(dictionary);
+        for (int child = firstChild(dictionary); child < end; child = next(child + 1)) {
+            int cmp = compareKey(child, bytes);
+            if (cmp == 0) return child + 1;
+            if (cmp > 0) return -1;
+        }
+        return -1;
+    }
+
+    public int get(int dictionary, String key) {
+        return get(dictionary, new Element.BString(key));
+    }
+
+    public int length(int node) {
+        return (int) tape[2 * node + 1];
+    }
+
+    public Element.BString string(int node) {
+        return new Element.BString(source.slice((int) offset(node), length(node)));
+    }
+
+    public long longValue(int node) {
+        if (tape[2 * node] >>> TYPE_SHIFT == BIG_INTEGER) {
+            throw new ArithmeticException("Integer " + bigValue(node) + " does not fit in a long");
+        }
+        return tape[2 * node + 1];
+    }
+
+    public BigInteger bigValue(int node) {
+        if (tape[2 * node] >>> TYPE_SHIFT != BIG_INTEGER) return BigInteger.valueOf(tape[2 * node + 1]);
+        byte[] digits = new byte[length(node)];
+        source.get((int) offset(node), digits);
+        return new BigInteger(new String(digits, StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Builds the element tree of the value.
+     */
+    public Element element(int node) {
+        return switch (type(node)) {
+            case STRING -> string(node);
+            case INTEGER -> tape[2 * node] >>> TYPE_SHIFT == BIG_INTEGER ?
+                    new Element.BInteger(bigValue(node)) :
+                    new Element.BInteger(tape[2 * node + 1]);
+            case LIST -> {
+                List<Element> list = new ArrayList<>();
+                for (int child = firstChild(node); child < next(node); child = next(child)) {
+                    list.add(element(child));
+                }
+                yield new Element.BList(list);
+            }
+            case DICTIONARY -> {
+                SortedDictionary.Builder dict = new SortedDictionary.Builder();
+                for (int child = firstChild(node); child < next(node); child = next(child + 1)) {
+                    dict.put(string(child), element(child + 1));
+                }
+                yield new Element.BDictionary(dict.build());
+            }
+        };
+    }
+
+    private int compareKey(int node, ByteBuffer key) {
+        return compare(source, (int) offset(node), length(node), key, key.position(), key.remaining());
+    }
+
+    private static int compare(ByteBuffer a, int aFrom, int aLength, ByteBuffer b, int bFrom, int bLength) {
+        int length = Math.min(aLength, bLength);
+        for (int i = 0; i < length; i++) {
+            int cmp = Integer.compare(a.get(aFrom + i) & 0xFF, b.get(bFrom + i) & 0xFF);
+            if (cmp != 0) return cmp;
+        }
+        return Integer.compare(aLength, bLength);
+    }
+
+    private static class Builder {
+        private static final byte LIST = 0;
+        private static final byte DICT_KEY = 1;
+        private static final byte DICT_VALUE = 2;
+
+        private final ByteBuffer source;
+        private final ByteLexer lexer;
+        private long[] tape = new long[64];
+        private int size;
+        private int[] containers = new int[8];
+        private byte[] frames = new byte[8];
+        private int[] keys = new int[8];
+        private int depth;
+
+        Builder(ByteBuffer source, ErrorReporter errorReporter) {
+            this.source = source;
+            this.lexer = new ByteLexer(ByteInput.wrap(source), errorReporter);
+            lexer.skipStrings(true);
+        }
+
+        Tape build() {
+            TokenType token = next();
+            if (token == TokenType.EOF) return null;
+            do {
+                if (depth > 0 && frames[depth - 1] == DICT_KEY) {
+                    key(token);
+                } else {
+                    value(token);
+                }
+                token = next();
+            } while (depth > 0);
+            if (token != TokenType.EOF) throw unexpected(TokenType.EOF);
+            return new Tape(source, tape, size);
+        }
+
+        private void key(TokenType token) {
+            if (token == TokenType.END_TYPE) {
+                close();
+                return;
+            }
+            expect(token, TokenType.STRING_BEGIN);
+            int key = string();
+            int prev = keys[depth - 1];
+            if (prev != -1 && compare(source, offset(prev), length(prev), source, offset(key), length(key)) > 0) {
+                throw new ParserException(Parser.lexicographicOrder(1, offset(containers[depth - 1])));
+            }
+            keys[depth - 1] = key;
+            frames[depth - 1] = DICT_VALUE;
+        }
+
+        private void value(TokenType token) {
+            if (token == TokenType.END_TYPE) {
+                if (depth == 0 || frames[depth - 1] == DICT_VALUE) throw unexpected();
+                close();
+                return;
+            }
+            if (depth > 0 && frames[depth - 1] == DICT_VALUE) frames[depth - 1] = DICT_KEY;
+            switch (token) {
+                case DICTIONARY -> open(Type.DICTIONARY.ordinal(), DICT_KEY);
+                case LIST -> open(Type.LIST.ordinal(), LIST);
+                case STRING_BEGIN -> string();
+                case INTEGER_BEGIN -> integer();
+                case EOF -> throw unexpected(TokenType.END_TYPE);
+                default -> throw unexpected();
+            }
+        }
+
+        private void open(int type, byte frame) {
+            int node = add(type, lexer.start(), 0);
+            if (depth == frames.length) {
+                containers = Arrays.copyOf(containers, depth * 2);
+                frames = Arrays.copyOf(frames, depth * 2);
+                keys = Arrays.copyOf(keys, depth * 2);
+            }
+            containers[depth] = node;
+            frames[depth] = frame;
+            keys[depth] = -1;
+            depth++;
+        }
+
+        private void close() {
+            depth--;
+            tape[2 * containers[depth] + 1] = size;
+        }
+
+        private int string() {
+            int length = (int) lexer.longValue();
+            expect(next(), TokenType.SEPARATOR);
+            expect(next(), TokenType.STRING);
+            return add(Type.STRING.ordinal(), lexer.start(), length);
+        }
+
+        private void integer() {
+            expect(next(), TokenType.INTEGER);
+            long start = lexer.start();
+            long value = lexer.longValue();
+            boolean big = lexer.bigValue() != null;
+            expect(next(), TokenType.END_TYPE);
+            if (big) {
+                add(BIG_INTEGER, start, lexer.start() - start);
+            } else {
+                add(Type.INTEGER.ordinal(), start, value);
+            }
+        }
+
+        private int add(int type, long offset, long value) {
+            if (2 * size == tape.length) tape = Arrays.copyOf(tape, tape.length * 2);
+            tape[2 * size] = (long) type << TYPE_SHIFT | offset;
+            tape[2 * size + 1] = value;
+            return size++;
+        }
+
+        private int offset(int node) {
+            return (int) (tape[2 * node] & OFFSET_MASK);
+        }
+
+        private int length(int node) {
+            return (int) tape[2 * node + 1];
+        }
+
+        private TokenType next() {
+            TokenType token = lexer.next();
+            if (lexer.lastError() != null) throw ParserException.reported(lexer.lastError());
+            return token;
+        }
+
+        private void expect(TokenType actual, TokenType expected) {
+            if (actual != expected) throw unexpected(expected);
+        }
+
+        private ParserException unexpected(TokenType... expected) {
+            return new ParserException(Parser.unexpectedToken(lexer, expected));
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.github.plugatarev.bencode.parser;
+
+import com.github.plugatarev.bencode.error.BencodeError;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Checks that a buffer holds exactly one well-formed value under the rules of
+ * {@link Parser}: sorted dictionary keys, no leading zeros, string lengths that fit
+ * the input. Nothing is built and nothing is allocated per value.
+ */
+public final class Validator {
+    /**
+     * @param code   first error, null if the input is valid
+     * @param offset offset of the first error from the buffer position, -1 if the input is valid
+     */
+    public record Verdict(BencodeError.Code code, long offset) {
+        public static final Verdict VALID = new Verdict(null, -1);
+
+        public boolean isValid() {
+            return code == null;
+        }
+    }
+
+    private static final int LIST = 0;
+    private static final int DICT_KEY = 1;
+    private static final int DICT_VALUE = 2;
+    private static final int FRAME = 4;
+
+    private final ByteBuffer source;
+    private final int base;
+    private final int limit;
+    private int[] frames = new int[8 * FRAME];
+    private int depth;
+    private BencodeError.Code code;
+    private int errorPos;
+
+    private Validator(ByteBuffer source) {
+        this.source = source;
+        this.base = source.position();
+        this.limit = source.limit();
+    }
+
+    /**
+     * Reads the buffer from its position to its limit without moving them.
+     */
+    public static Verdict validate(ByteBuffer buffer) {
+        Validator validator = new Validator(buffer);
+        if (validator.validate()) return Verdict.VALID;
+        return new Verdict(validator.code, validator.errorPos - validator.base);
+    }
+
+    private boolean validate() {
+        int pos = base;
+        do {
+            if (pos == limit) return fail(BencodeError.Code.UNEXPECTED_TOKEN, pos);
+            byte c = source.get(pos);
+            int frame = (depth - 1) * FRAME;
+            if (depth > 0 && frames[frame] == DICT_KEY && c != 'e') {
+                int key = pos;
+                if ((pos = string(pos)) < 0) return false;
+                if (!checkOrder(frame, key, pos)) return false;
+                frames[frame] = DICT_VALUE;
+                continue;
+            }
+            if (depth > 0 && frames[frame] == DICT_VALUE) {
+                if (c == 'e') return fail(BencodeError.Code.UNEXPECTED_TOKEN, pos);
+                frames[frame] = DICT_KEY;
+            }
+            switch (c) {
+                case 'd' -> push(DICT_KEY, pos++);
+                case 'l' -> push(LIST, pos++);
+                case 'i' -> pos = integer(pos + 1);
+                case 'e' -> {
+                    if (depth == 0) return fail(BencodeError.Code.UNEXPECTED_TOKEN, pos);
+                    depth--;
+                    pos++;
+                }
+                default -> pos = string(pos);
+            }
+            if (pos < 0) return false;
+        } while (depth > 0);
+        return pos == limit || fail(BencodeError.Code.UNEXPECTED_TOKEN, pos);
+    }
+
+    /**
+     * @return offset after the string, or -1 on error
+     */
+    private int string(int pos) {
+        int colon = digits(pos);
+        if (colon < 0) return -1;
+        if (colon == pos) return failToken(pos);
+        if (colon == limit || source.get(colon) != ':') return failToken(colon);
+        long length = 0;
+        for (int i = pos; i < colon; i++) {
+            length = length * 10 + source.get(i) - '0';
+            if (length > Integer.MAX_VALUE) return error(BencodeError.Code.INCORRECT_NUMBER, pos);
+        }
+        if (length > limit - colon - 1) return error(BencodeError.Code.INCORRECT_STRING_LENGTH, colon + 1);
+        return colon + 1 + (int) length;
+    }
+
+    /**
+     * @return offset after the closing 'e', or -1 on error
+     */
+    private int integer(int pos) {
+        if (pos < limit && source.get(pos) == '-') {
+            if (pos + 1 < limit && source.get(pos + 1) == '0') return error(BencodeError.Code.NUMBER_WITH_DEAD_ZEROS, pos);
+            pos++;
+        }
+        int end = digits(pos);
+        if (end < 0) return -1;
+        if (end == pos) return failToken(pos);
+        if (end == limit || source.get(end) != 'e') return failToken(end);
+        return end + 1;
+    }
+
+    /**
+     * @return offset after the digits that start at {@code pos}, or -1 on leading zeros
+     */
+    private int digits(int pos) {
+        int i = pos;
+        while (i < limit && isDigit(source.get(i))) i++;
+        if (i - pos > 1 && source.get(pos) == '0') {
+            return error(BencodeError.Code.NUMBER_WITH_DEAD_ZEROS, pos);
+        }
+        return i;
+    }
+
+    private boolean checkOrder(int frame, int key, int end) {
+        int colon = key;
+        while (source.get(colon) != ':') colon++;
+        int prev = frames[frame + 2];
+        int prevLength = frames[frame + 3];
+        int length = end - colon - 1;
+        if (prev >= 0 && compare(prev, prevLength, colon + 1, length) > 0) {
+            return fail(BencodeError.Code.KEY_ORDER, frames[frame + 1]);
+        }
+        frames[frame + 2] = colon + 1;
+        frames[frame + 3] = length;
+        return true;
+    }
+
+    private int compare(int a, int aLength, int b, int bLength) {
+        int length = Math.min(aLength, bLength);
+        for (int i = 0; i < length; i++) {
+            int cmp = Integer.compare(source.get(a + i) & 0xFF, source.get(b + i) & 0xFF);
+            if (cmp != 0) return cmp;
+        }
+        return Integer.compare(aLength, bLength);
+    }
+
+    private void push(int state, int pos) {
+        if (depth * FRAME == frames.length) frames = Arrays.copyOf(frames, frames.length * 2);
+        int frame = depth * FRAME;
+        frames[frame] = state;
+        frames[frame + 1] = pos;
+        frames[frame + 2] = -1;
+        depth++;
+    }
+
+    private int failToken(int pos) {
+        boolean known = pos == limit || switch (source.get(pos)) {
+            case 'd', 'l', 'i', 'e', ':' -> true;
+            default -> isDigit(source.get(pos));
+        };
+        return error(known ? BencodeError.Code.UNEXPECTED_TOKEN : BencodeError.Code.UNKNOWN_CHAR, pos);
+    }
+
+    private int error(BencodeError.Code code, int pos) {
+        fail(code, pos);
+        return -1;
+    }
+
+    private boolean fail(BencodeError.Code code, int pos) {
+        this.code = code;
+        this.errorPos = pos;
+        return false;
+    }
+
+    private static boolean isDigit(byte c) {
+        return c >= '0' && c <= '9';
+    }
+}
@@ -0,0 +1,260 @@
+package com.github.plugatarev.bencode.query;
+
+import com.github.plugatarev.bencode.error.SilentReporter;
+import com.github.plugatarev.bencode.lexer.ByteInput;
+import com.github.plugatarev.bencode.parser.BencodeReader;
+import com.github.plugatarev.bencode.parser.Element;
+import com.github.plugatarev.bencode.parser.Event;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compiled path into a document, such as {@code info.files[*].length}. A path is a chain of
+ * steps: {@code name} or {@code ['name']} selects a dictionary entry, {@code [2]} a list
+ * member, and {@code *} or {@code [*]} every member of either. The empty path selects the root.
+ * <p>
+ * Queries run on {@link BencodeReader} events: subtrees that no step can match are skipped
+ * without building elements or reading their strings, and only the selected values are
+ * built. Malformed input ends with a {@link com.github.plugatarev.bencode.parser.ParserException}.
+ */
+public final class PathQuery {
+    /**
+     * @param key   key of the selected entry, null for a list member or any member
+     * @param index index of the selected list member, -1 for a dictionary entry or any member
+     */
+    private record Step(Element.BString key, int index) {
+        private static final Step ANY = new Step(null, -1);
+
+        boolean matches(Element.BString memberKey, int memberIndex) {
+            if (key == null && index < 0) return true;
+            return memberKey != null ? memberKey.equals(key) : key == null && index == memberIndex;
+        }
+    }
+
+    private final String text;
+    private final Step[] steps;
+
+    private PathQuery(String text, Step[] steps) {
+        this.text = text;
+        this.steps = steps;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the path is malformed
+     */
+    public static PathQuery compile(String path) {
+        List<Step> steps = new ArrayList<>();
+        int pos = 0;
+        while (pos < path.length()) {
+            char c = path.charAt(pos);
+            if (c == '[') {
+                int close = path.indexOf(']', pos);
+                if (close < 0) throw malformed(path, pos);
+                steps.add(bracket(path, pos + 1, close));
+                pos = close + 1;
+                continue;
+            }
+            if (c == '.' && !steps.isEmpty()) pos++;
+            int end = pos;
+            while (end < path.length() && path.charAt(end) != '.' && path.charAt(end) != '[') end++;
+            if (end == pos) throw malformed(path, pos);
+            String name = path.substring(pos, end);
+            steps.add(name.equals("*") ? Step.ANY : new Step(new Element.BString(name), -1));
+            pos = end;
+        }
+        return new PathQuery(path, steps.toArray(new Step[0]));
+    }
+
+    private static Step bracket(String path, int from, int to) {
+        String selector = path.substring(from, to);
+        if (selector.equals("*")) return Step.ANY;
+        if (selector.length() >= 2 && (selector.charAt(0) == '\'' || selector.charAt(0) == '"')
+                && selector.charAt(selector.length() - 1) == selector.charAt(0)) {
+            return new Step(new Element.BString(selector.substring(1, selector.length() - 1)), -1);
+        }
+        try {
+            int index = Integer.parseInt(selector);
+            if (index >= 0) return new Step(null, index);
+        } catch (NumberFormatException ignored) {
+            // reported below
+        }
+        throw malformed(path, from);
+    }
+
+    private static IllegalArgumentException malformed(String path, int pos) {
+        return new IllegalArgumentException("Malformed path '" + path + "' at " + pos);
+    }
+
+    /**
+     * Reads the value in the buffer from its position without moving it. The value has to
+     * be the only one in the buffer.
+     *
+     * @return selected values in document order
+     */
+    public List<Element> select(ByteBuffer buffer) {
+        BencodeReader reader = new BencodeReader(ByteInput.wrap(buffer), SilentReporter.INSTANCE);
+        List<Element> selected = select(reader);
+        reader.expectEnd();
+        return selected;
+    }
+
+    /**
+     * Reads the next value of the reader.
+     */
+    public List<Element> select(BencodeReader reader) {
+        return select(reader, List.of(this)).get(0);
+    }
+
+    /**
+     * @return selected strings as UTF-8 text; values of other types are left out
+     */
+    public List<String> strings(ByteBuffer buffer) {
+        List<String> strings = new ArrayList<>();
+        for (Element element : select(buffer)) {
+            if (element instanceof Element.BString string) strings.add(string.asString(StandardCharsets.UTF_8));
+        }
+        return strings;
+    }
+
+    /**
+     * @return selected integers; values of other types are left out
+     * @throws ArithmeticException if an integer does not fit in a long
+     */
+    public long[] longs(ByteBuffer buffer) {
+        List<Element> elements = select(buffer);
+        long[] longs = new long[elements.size()];
+        int count = 0;
+        for (Element element : elements) {
+            if (element instanceof Element.BInteger integer) longs[count++] = integer.longValue();
+        }
+        return Arrays.copyOf(longs, count);
+    }
+
+    /**
+     * Runs several queries in one pass over the next value of the reader.
+     *
+     * @return selected values of every query, in the order of the queries
+     */
+    public static List<List<Element>> select(BencodeReader reader, List<PathQuery> queries) {
+        Walker walker = new Walker(reader, queries);
+        Event event = reader.next();
+        if (event != Event.EOF) {
+            int[] states = new int[queries.size()];
+            for (int i = 0; i < states.length; i++) {
+                states[i] = state(i, 0);
+            }
+            walker.value(event, states);
+        }
+        return walker.results;
+    }
+
+    /**
+     * A state is a query and the number of its steps matched so far.
+     */
+    private static int state(int query, int step) {
+        return query << 16 | step;
+    }
+
+    private static final class Walker {
+        private final BencodeReader reader;
+        private final Step[][] steps;
+        private final List<List<Element>> results;
+
+        Walker(BencodeReader reader, List<PathQuery> queries) {
+            this.reader = reader;
+            this.steps = new Step[queries.size()][];
+            this.results = new ArrayList<>(queries.size());
+            for (int i = 0; i < steps.length; i++) {
+                steps[i] = queries.get(i).steps;
+                results.add(new ArrayList<>());
+            }
+        }
+
+        /**
+         * Reads the value whose first event was just taken, with the states that reached it.
+         */
+        void value(Event event, int[] states) {
+            for (int state : states) {
+                if ((state & 0xFFFF) == steps[state >>> 16].length) {
+                    Element element = reader.readValue();
+                    for (int s : states) {
+                        collect(steps[s >>> 16], s & 0xFFFF, element, results.get(s >>> 16));
+                    }
+                    return;
+                }
+            }
+            if (event == Event.START_DICT) {
+                while (reader.next() == Event.KEY) {
+                    member(states, reader.stringValue(), -1);
+                }
+            } else if (event == Event.START_LIST) {
+                int index = 0;
+                while (reader.next() != Event.END) {
+                    int[] next = advance(states, null, index++);
+                    if (next.length == 0) {
+                        reader.skipValue();
+                    } else {
+                        value(reader.event(), next);
+                    }
+                }
+            }
+        }
+
+        private void member(int[] states, Element.BString key, int index) {
+            int[] next = advance(states, key, index);
+            if (next.length == 0) {
+                reader.skipValue();
+            } else {
+                value(reader.next(), next);
+            }
+        }
+
+        private int[] advance(int[] states, Element.BString key, int index) {
+            int[] next = new int[states.length];
+            int count = 0;
+            for (int state : states) {
+                int step = state & 0xFFFF;
+                if (steps[state >>> 16][step].matches(key, index)) next[count++] = state + 1;
+            }
+            return count == next.length ? next : Arrays.copyOf(next, count);
+        }
+
+        /**
+         * Follows the remaining steps inside a value that is already built.
+         */
+        private static void collect(Step[] steps, int step, Element element, List<Element> out) {
+            if (step == steps.length) {
+                out.add(element);
+                return;
+            }
+            Step current = steps[step];
+            if (element instanceof Element.BDictionary dictionary && current.index() < 0) {
+                if (current.key() != null) {
+                    Element value = dictionary.dict().get(current.key());
+                    if (value != null) collect(steps, step + 1, value, out);
+                } else {
+                    for (Element value : dictionary.dict().values()) {
+                        collect(steps, step + 1, value, out);
+                    }
+                }
+            } else if (element instanceof Element.BList list && current.key() == null) {
+                if (current.index() >= 0) {
+                    if (current.index() < list.list().size()) collect(steps, step + 1, list.list().get(current.index()), out);
+                } else {
+                    for (Element value : list.list()) {
+                        collect(steps, step + 1, value, out);
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+}
@@ -0,0 +1,254 @@
+package com.github.plugatarev.bencode.writer;
+
+import com.github.plugatarev.bencode.parser.Element;
+import com.github.plugatarev.bencode.parser.Parser;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Streaming bencode encoder. Writes go either straight into a caller's buffer
+ * (overflow ends with {@link java.nio.BufferOverflowException}) or through an internal
+ * buffer into an output stream. Dictionary keys have to come in canonical order.
+ */
+public class BencodeWriter implements Flushable {
+    private static final int BUFFER_SIZE = 8192;
+    private static final byte LIST = 0;
+    private static final byte DICT_KEY = 1;
+    private static final byte DICT_VALUE = 2;
+
+    private final OutputStream out;
+    private final ByteBuffer buffer;
+    private final byte[] digits = new byte[20];
+    private byte[] frames = new byte[8];
+    private byte[][] keys = new byte[8][];
+    private int[] keyLengths = new int[8];
+    private int depth;
+
+    public BencodeWriter(OutputStream out) {
+        this.out = out;
+        this.buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    }
+
+    public BencodeWriter(ByteBuffer buffer) {
+        this.out = null;
+        this.buffer = buffer;
+    }
+
+    public static byte[] encode(Element element) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BencodeWriter writer = new BencodeWriter(out);
+        writer.value(element);
+        writer.flush();
+        return out.toByteArray();
+    }
+
+    public BencodeWriter beginDictionary() {
+        valueStarted();
+        put((byte) 'd');
+        push(DICT_KEY);
+        return this;
+    }
+
+    public BencodeWriter beginList() {
+        valueStarted();
+        put((byte) 'l');
+        push(LIST);
+        return this;
+    }
+
+    public BencodeWriter end() {
+        if (depth == 0 || frames[depth - 1] == DICT_VALUE) {
+            throw new IllegalStateException("No container to end");
+        }
+        depth--;
+        put((byte) 'e');
+        return this;
+    }
+
+    public BencodeWriter key(String key) {
+        return key(new Element.BString(key));
+    }
+
+    public BencodeWriter key(Element.BString key) {
+        if (depth == 0 || frames[depth - 1] != DICT_KEY) {
+            throw new IllegalStateException("Key outside of a dictionary");
+        }
+        ByteBuffer bytes = key.bytes();
+        rememberKey(bytes);
+        frames[depth - 1] = DICT_VALUE;
+        string(bytes);
+        return this;
+    }
+
+    public BencodeWriter value(long value) {
+        valueStarted();
+        put((byte) 'i');
+        number(value);
+        put((byte) 'e');
+        return this;
+    }
+
+    public BencodeWriter value(BigInteger value) {
+        valueStarted();
+        put((byte) 'i');
+        put(ByteBuffer.wrap(value.toString().getBytes(StandardCharsets.US_ASCII)));
+        put((byte) 'e');
+        return this;
+    }
+
+    public BencodeWriter value(String value) {
+        return value(new Element.BString(value));
+    }
+
+    public BencodeWriter value(Element.BString value) {
+        valueStarted();
+        string(value.bytes());
+        return this;
+    }
+
+    public BencodeWriter value(Element element) {
+        switch (element) {
+            case Element.BInteger bInteger -> {
+                if (bInteger.isLong()) value(bInteger.value());
+                else value(bInteger.big());
+            }
+            case Element.BString bString -> value(bString);
+            case Element.BList bList -> {
+                beginList();
+                for (Element member : bList.list()) {
+                    value(member);
+                }
+                end();
+            }
+            case Element.BDictionary bDictionary -> {
+                beginDictionary();
+                Map<Element.BString, Element> dict = bDictionary.dict();
+                if (Parser.isCorrectOrder(dict)) {
+                    dict.forEach((k, v) -> key(k).value(v));
+                } else {
+                    Element.BString[] sorted = dict.keySet().toArray(new Element.BString[0]);
+                    Arrays.sort(sorted);
+                    for (Element.BString key : sorted) {
+                        key(key).value(dict.get(key));
+                    }
+                }
+                end();
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Writes buffered bytes to the output stream; a no-op for buffer output.
+     */
+    @Override
+    public void flush() {
+        if (out == null) return;
+        try {
+            out.write(buffer.array(), 0, buffer.position());
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        buffer.clear();
+    }
+
+    private void valueStarted() {
+        if (depth == 0) return;
+        if (frames[depth - 1] == DICT_KEY) throw new IllegalStateException("Expected a key");
+        if (frames[depth - 1] == DICT_VALUE) frames[depth - 1] = DICT_KEY;
+    }
+
+    private void push(byte frame) {
+        if (depth == frames.length) {
+            frames = Arrays.copyOf(frames, depth * 2);
+            keys = Arrays.copyOf(keys, depth * 2);
+            keyLengths = Arrays.copyOf(keyLengths, depth * 2);
+        }
+        frames[depth] = frame;
+        keyLengths[depth] = -1;
+        depth++;
+    }
+
+    private void rememberKey(ByteBuffer key) {
+        int level = depth - 1;
+        int length = key.remaining();
+        byte[] prev = keys[level];
+        if (keyLengths[level] != -1) {
+            if (compare(prev, keyLengths[level], key) >= 0) {
+                throw new IllegalStateException("Key '" + StandardCharsets.UTF_8.decode(key) + "' is out of order");
+            }
+        }
+        if (prev == null || prev.length < length) {
+            prev = keys[level] = new byte[Math.max(length, 16)];
+        }
+        key.get(key.position(), prev, 0, length);
+        keyLengths[level] = length;
+    }
+
+    private static int compare(byte[] prev, int prevLength, ByteBuffer key) {
+        int length = Math.min(prevLength, key.remaining());
+        for (int i = 0; i < length; i++) {
+            int cmp = Integer.compare(prev[i] & 0xFF, key.get(key.position() + i) & 0xFF);
+            if (cmp != 0) return cmp;
+        }
+        return Integer.compare(prevLength, key.remaining());
+    }
+
+    private void string(ByteBuffer bytes) {
+        number(bytes.remaining());
+        put((byte) ':');
+        put(bytes);
+    }
+
+    private void number(long value) {
+        int pos = digits.length;
+        long rest = value;
+        do {
+            digits[--pos] = (byte) ('0' + Math.abs(rest % 10));
+            rest /= 10;
+        } while (rest != 0);
+        if (value < 0) digits[--pos] = '-';
+        ensure(digits.length - pos);
+        buffer.put(digits, pos, digits.length - pos);
+    }
+
+    private void put(byte b) {
+        ensure(1);
+        buffer.put(b);
+    }
+
+    private void put(ByteBuffer bytes) {
+        if (out == null || bytes.remaining() <= buffer.remaining()) {
+            buffer.put(bytes);
+            return;
+        }
+        while (bytes.hasRemaining()) {
+            ensure(1);
+            int count = Math.min(bytes.remaining(), buffer.remaining());
+            buffer.put(buffer.position(), bytes, bytes.position(), count);
+            buffer.position(buffer.position() + count);
+            bytes.position(bytes.position() + count);
+        }
+    }
+
+    private void ensure(int n) {
+        if (out != null && buffer.remaining() < n) {
+            try {
+                out.write(buffer.array(), 0, buffer.position());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            buffer.clear();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.github.plugatarev.bencode;
+
+import com.github.plugatarev.bencode.parser.Element;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class BencodeBatchTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static ByteBuffer bytes(String input) {
+        return ByteBuffer.wrap(input.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    public void resultsInInputOrder() {
+        List<ByteBuffer> buffers = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            buffers.add(bytes("li" + i + "ee"));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<BencodeBatch.Result> results = BencodeBatch.parseAllBuffers(buffers, executor);
+            for (int i = 0; i < results.size(); i++) {
+                Assert.assertEquals(new Element.BList(List.of(new Element.BInteger(i))), results.get(i).element());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void errorsStayWithTheirInput() {
+        List<BencodeBatch.Result> results = BencodeBatch.parseAllBuffers(List.of(
+                bytes("i1e"), bytes("i01e"), bytes("d4:spami1e3:keyi2ee"), bytes("4:spam")));
+        Assert.assertTrue(results.get(0).isValid());
+        Assert.assertFalse(results.get(1).errors().isEmpty());
+        Assert.assertNull(results.get(1).element());
+        Assert.assertFalse(results.get(2).isValid());
+        Assert.assertEquals(new Element.BString("spam"), results.get(3).element());
+    }
+
+    @Test
+    public void files() throws IOException {
+        Path good = folder.newFile().toPath();
+        Files.write(good, "d3:bar4:spame".getBytes(StandardCharsets.US_ASCII));
+        Path missing = folder.getRoot().toPath().resolve("missing");
+        List<BencodeBatch.Result> results = BencodeBatch.parseAll(List.of(good, missing));
+        Assert.assertTrue(results.get(0).isValid());
+        Assert.assertFalse(results.get(1).isValid());
+    }
+
+    @Test
+    public void emptyInputIsAnError() throws IOException {
+        Path empty = folder.newFile().toPath();
+        BencodeBatch.Result result = BencodeBatch.parse(empty);
+        Assert.assertFalse(result.isValid());
+        Assert.assertEquals(List.of("Empty input"), result.errors());
+        Assert.assertFalse(BencodeBatch.parseAllBuffers(List.of(bytes(""))).get(0).isValid());
+    }
+
+    @Test
+    public void convertDirectory() throws Exception {
+        Path input = folder.newFolder("in").toPath();
+        Files.write(input.resolve("a"), "d3:bar4:spame".getBytes(StandardCharsets.US_ASCII));
+        Files.write(input.resolve("b"), "i01e".getBytes(StandardCharsets.US_ASCII));
+        Files.createFile(input.resolve("c"));
+        Path output = folder.getRoot().toPath().resolve("out");
+        Main.main(new String[]{input.toString(), output.toString()});
+        Assert.assertEquals("{\n  \"bar\": \"spam\"\n}", Files.readString(output.resolve("a.json")));
+        Assert.assertTrue(Files.readString(output.resolve("b.json")).startsWith("Number"));
+        Assert.assertEquals("Empty input", Files.readString(output.resolve("c.json")));
+    }
+}
@@ -0,0 +1,75 @@
+package com.github.plugatarev.bencode;
+
+import com.github.plugatarev.bencode.error.BencodeError;
+import com.github.plugatarev.bencode.error.ErrorReporter;
+import com.github.plugatarev.bencode.lexer.TokenType;
+import com.github.plugatarev.bencode.parser.Parser;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+public class BencodeErrorTest {
+
+    private static List<BencodeError> errors(String input) {
+        List<BencodeError> errors = new ArrayList<>();
+        Parser.parse(ByteBuffer.wrap(input.getBytes(StandardCharsets.US_ASCII)), new ErrorReporter() {
+            @Override
+            public boolean report(String message) {
+                throw new AssertionError("Message rendered eagerly");
+            }
+
+            @Override
+            public boolean report(BencodeError error) {
+                errors.add(error);
+                return true;
+            }
+
+            @Override
+            public boolean hasError() {
+                return !errors.isEmpty();
+            }
+        });
+        return errors;
+    }
+
+    @Test
+    public void unexpectedToken() {
+        BencodeError error = errors("i1").get(0);
+        Assert.assertEquals(BencodeError.Code.UNEXPECTED_TOKEN, error.code());
+        Assert.assertEquals(TokenType.EOF, error.actual());
+        Assert.assertArrayEquals(new TokenType[]{TokenType.END_TYPE}, error.expected());
+        Assert.assertEquals(-1, error.offset());
+    }
+
+    @Test
+    public void lexical() {
+        BencodeError error = errors("li1ei01ee").get(0);
+        Assert.assertEquals(BencodeError.Code.NUMBER_WITH_DEAD_ZEROS, error.code());
+        Assert.assertEquals(5, error.offset());
+        Assert.assertEquals("""
+                Number 01 cannot have leading zeros at line 1:
+                li1ei01ee
+                     ^--- here
+                """, error.message());
+    }
+
+    @Test
+    public void numberTextLongerThanContext() {
+        String length = "9".repeat(40);
+        BencodeError error = errors(length + ":a").get(0);
+        Assert.assertEquals(BencodeError.Code.INCORRECT_NUMBER, error.code());
+        Assert.assertTrue(error.message(), error.message().contains(length));
+    }
+
+    @Test
+    public void keyOrder() {
+        BencodeError error = errors("d4:spami1e3:keyi2ee").get(0);
+        Assert.assertEquals(BencodeError.Code.KEY_ORDER, error.code());
+        Assert.assertEquals(0, error.offset());
+        Assert.assertTrue(error.message().startsWith("Line 1, position: 1\n"));
+    }
+}
@@ -0,0 +1,90 @@
+package com.github.plugatarev.bencode;
+
+import com.github.plugatarev.bencode.lexer.ByteInput;
+import com.github.plugatarev.bencode.parser.BencodeReader;
+import com.github.plugatarev.bencode.parser.Element;
+import com.github.plugatarev.bencode.parser.Event;
+import com.github.plugatarev.bencode.parser.ParserException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+public class BencodeReaderTest {
+    private static final TestReporter errorReporter = new TestReporter();
+
+    private static BencodeReader reader(String input) {
+        errorReporter.clear();
+        byte[] bytes = input.getBytes(StandardCharsets.US_ASCII);
+        return new BencodeReader(ByteInput.of(new ByteArrayInputStream(bytes)), errorReporter);
+    }
+
+    private static List<Event> events(String input) {
+        BencodeReader reader = reader(input);
+        List<Event> events = new ArrayList<>();
+        do {
+            events.add(reader.next());
+        } while (reader.event() != Event.EOF);
+        return events;
+    }
+
+    @Test
+    public void allEvents() {
+        Assert.assertEquals(List.of(Event.START_DICT, Event.KEY, Event.START_LIST, Event.STRING, Event.INTEGER,
+                        Event.END, Event.KEY, Event.STRING, Event.END, Event.EOF),
+                events("d3:keyl4:spami42ee3:zzz0:e"));
+    }
+
+    @Test
+    public void values() {
+        BencodeReader reader = reader("d3:keyi-7e4:name3:mooe");
+        reader.next();
+        Assert.assertEquals(Event.KEY, reader.next());
+        Assert.assertEquals(new Element.BString("key"), reader.stringValue());
+        Assert.assertEquals(Event.INTEGER, reader.next());
+        Assert.assertEquals(-7, reader.longValue());
+        reader.next();
+        Assert.assertEquals(Event.STRING, reader.next());
+        Assert.assertEquals(new Element.BString("moo"), reader.stringValue());
+        Assert.assertEquals(1, reader.depth());
+    }
+
+    @Test
+    public void skipValue() {
+        BencodeReader reader = reader("d4:infod5:filesld6:lengthi1eee6:pieces3:abce4:name3:fooe");
+        reader.next();
+        reader.next();
+        reader.skipValue();
+        Assert.assertEquals(Event.END, reader.event());
+        Assert.assertEquals(1, reader.depth());
+        Assert.assertEquals(Event.KEY, reader.next());
+        Assert.assertEquals(new Element.BString("name"), reader.stringValue());
+        reader.skipValue();
+        Assert.assertEquals(Event.STRING, reader.event());
+        Assert.assertEquals(Event.END, reader.next());
+        Assert.assertEquals(Event.EOF, reader.next());
+    }
+
+    @Test(expected = ParserException.class)
+    public void incorrectLexicographicOrder() {
+        events("d4:spami1e3:keyi2ee");
+    }
+
+    @Test(expected = ParserException.class)
+    public void withoutEndSymbol() {
+        events("l3:key");
+    }
+
+    @Test(expected = ParserException.class)
+    public void keyNotString() {
+        events("di1e3:keye");
+    }
+
+    @Test(expected = ParserException.class)
+    public void unknownChar() {
+        events("l$e");
+    }
+}
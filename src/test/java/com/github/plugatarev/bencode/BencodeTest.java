@@ -0,0 +1,61 @@
+package com.github.plugatarev.bencode;
+
+import com.github.plugatarev.bencode.lexer.ByteInput;
+import com.github.plugatarev.bencode.parser.Element;
+import com.github.plugatarev.bencode.parser.Parser;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+public class BencodeTest {
+    private static final TestReporter errorReporter = new TestReporter();
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path file(String content) throws IOException {
+        Path path = folder.newFile().toPath();
+        Files.write(path, content.getBytes(StandardCharsets.US_ASCII));
+        return path;
+    }
+
+    @Test
+    public void parseFile() throws IOException {
+        Element element = Bencode.parse(file("d3:bar4:spam3:fooi42ee"), errorReporter);
+        Element expected = new Element.BDictionary(Map.of(
+                new Element.BString("bar"), new Element.BString("spam"),
+                new Element.BString("foo"), new Element.BInteger(42)));
+        Assert.assertEquals(expected, element);
+    }
+
+    @Test
+    public void emptyFile() throws IOException {
+        Assert.assertNull(Bencode.parse(file(""), errorReporter));
+    }
+
+    @Test
+    public void malformedFile() throws IOException {
+        Assert.assertNull(Bencode.parse(file("d3:bar"), errorReporter));
+        errorReporter.clear();
+    }
+
+    @Test
+    public void valuesAcrossWindows() throws IOException {
+        Path path = file("l11:hello world10:0123456789i123456ee");
+        try (FileChannel channel = FileChannel.open(path)) {
+            Element element = Parser.parse(ByteInput.map(channel, 5), errorReporter);
+            Element expected = new Element.BList(List.of(new Element.BString("hello world"),
+                    new Element.BString("0123456789"), new Element.BInteger(123456)));
+            Assert.assertEquals(expected, element);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.github.plugatarev.bencode;
+
+import com.github.plugatarev.bencode.parser.Element;
+import com.github.plugatarev.bencode.parser.Parser;
+import com.github.plugatarev.bencode.writer.BencodeWriter;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigInteger;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class BencodeWriterTest {
+    private static final TestReporter errorReporter = new TestReporter();
+
+    private static String encode(Element element) {
+        return new String(BencodeWriter.encode(element), StandardCharsets.ISO_8859_1);
+    }
+
+    @Test
+    public void number() {
+        Assert.assertEquals("i-42e", encode(new Element.BInteger(-42)));
+        Assert.assertEquals("i0e", encode(new Element.BInteger(0)));
+        Assert.assertEquals("i18446744073709551616e", encode(new Element.BInteger(BigInteger.ONE.shiftLeft(64))));
+    }
+
+    @Test
+    public void string() {
+        Assert.assertEquals("5:hello", encode(new Element.BString("hello")));
+        Assert.assertEquals("0:", encode(new Element.BString("")));
+    }
+
+    @Test
+    public void dictionaryInCanonicalOrder() {
+        Map<Element.BString, Element> dict = new HashMap<>();
+        dict.put(new Element.BString("foo"), new Element.BInteger(42));
+        dict.put(new Element.BString("bar"), new Element.BList(List.of(new Element.BString("spam"))));
+        Assert.assertEquals("d3:barl4:spame3:fooi42ee", encode(new Element.BDictionary(dict)));
+    }
+
+    @Test
+    public void roundTrip() {
+        String input = "d4:infod6:lengthi1024e4:name4:file6:pieces3:\u00FF\u0000\u00A0e7:privatei1ee";
+        byte[] bytes = input.getBytes(StandardCharsets.ISO_8859_1);
+        Element element = Parser.parse(ByteBuffer.wrap(bytes), errorReporter);
+        Assert.assertArrayEquals(bytes, BencodeWriter.encode(element));
+    }
+
+    @Test
+    public void streaming() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BencodeWriter writer = new BencodeWriter(out);
+        writer.beginDictionary()
+                .key("interval").value(1800)
+                .key("peers").beginList().value("a").value("b").end()
+                .end();
+        writer.flush();
+        Assert.assertEquals("d8:intervali1800e5:peersl1:a1:bee", out.toString(StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    public void largeString() {
+        String payload = "x".repeat(20000);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BencodeWriter writer = new BencodeWriter(out);
+        writer.beginList().value(payload).end().flush();
+        Assert.assertEquals("l20000:" + payload + "e", out.toString(StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    public void intoBuffer() {
+        ByteBuffer buffer = ByteBuffer.allocate(32);
+        new BencodeWriter(buffer).beginList().value(Long.MIN_VALUE).end();
+        Assert.assertEquals("li-9223372036854775808ee",
+                new String(buffer.array(), 0, buffer.position(), StandardCharsets.US_ASCII));
+    }
+
+    @Test(expected = BufferOverflowException.class)
+    public void bufferOverflow() {
+        new BencodeWriter(ByteBuffer.allocate(4)).value("hello");
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void keysOutOfOrder() {
+        new BencodeWriter(new ByteArrayOutputStream()).beginDictionary().key("foo").value(1).key("bar");
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void valueInsteadOfKey() {
+        new BencodeWriter(new ByteArrayOutputStream()).beginDictionary().value(1);
+    }
+}
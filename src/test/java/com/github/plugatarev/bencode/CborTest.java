@@ -0,0 +1,83 @@
+package com.github.plugatarev.bencode;
+
+import com.github.plugatarev.bencode.convert.BencodeSink;
+import com.github.plugatarev.bencode.convert.BencodeSource;
+import com.github.plugatarev.bencode.convert.CborSink;
+import com.github.plugatarev.bencode.convert.CborSource;
+import com.github.plugatarev.bencode.convert.ConversionException;
+import com.github.plugatarev.bencode.lexer.ByteInput;
+import com.github.plugatarev.bencode.parser.BencodeReader;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+public class CborTest {
+    private static final TestReporter errorReporter = new TestReporter();
+
+    private static byte[] cbor(String bencode) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BencodeReader reader = new BencodeReader(ByteInput.wrap(ByteBuffer.wrap(bencode.getBytes(StandardCharsets.ISO_8859_1))), errorReporter);
+        BencodeSource.copy(reader, new CborSink(out));
+        return out.toByteArray();
+    }
+
+    private static String bencode(byte[] cbor) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (BencodeSink sink = new BencodeSink(out)) {
+            CborSource.copy(new ByteArrayInputStream(cbor), sink);
+        }
+        return out.toString(StandardCharsets.ISO_8859_1);
+    }
+
+    private static byte[] bytes(int... values) {
+        byte[] bytes = new byte[values.length];
+        for (int i = 0; i < values.length; i++) {
+            bytes[i] = (byte) values[i];
+        }
+        return bytes;
+    }
+
+    @Test
+    public void encoding() throws IOException {
+        Assert.assertArrayEquals(bytes(0x0a), cbor("i10e"));
+        Assert.assertArrayEquals(bytes(0x20), cbor("i-1e"));
+        Assert.assertArrayEquals(bytes(0x19, 0x03, 0xe8), cbor("i1000e"));
+        Assert.assertArrayEquals(bytes(0x3b, 0x7f, 0xff, 0xff, 0xff, 0xff, 0xff, 0xff, 0xff), cbor("i-9223372036854775808e"));
+        Assert.assertArrayEquals(bytes(0x1b, 0xff, 0xff, 0xff, 0xff, 0xff, 0xff, 0xff, 0xff), cbor("i18446744073709551615e"));
+        Assert.assertArrayEquals(bytes(0xc2, 0x49, 0x01, 0, 0, 0, 0, 0, 0, 0, 0), cbor("i18446744073709551616e"));
+        Assert.assertArrayEquals(bytes(0x64, 's', 'p', 'a', 'm'), cbor("4:spam"));
+        Assert.assertArrayEquals(bytes(0x41, 0xff), cbor("1:\u00ff"));
+        Assert.assertArrayEquals(bytes(0xbf, 0x61, 'a', 0x9f, 0x01, 0x02, 0xff, 0xff), cbor("d1:ali1ei2eee"));
+    }
+
+    @Test
+    public void decoding() throws IOException {
+        Assert.assertEquals("d1:ai2e1:bi1ee", bencode(bytes(0xa2, 0x61, 'b', 0x01, 0x61, 'a', 0x02)));
+        Assert.assertEquals("li1ei0ei-18446744073709551617ee", bencode(bytes(0x83, 0xf5, 0xf4, 0xc3, 0x49, 0x01, 0, 0, 0, 0, 0, 0, 0, 0)));
+        Assert.assertEquals("5:strea", bencode(bytes(0x7f, 0x63, 's', 't', 'r', 0x62, 'e', 'a', 0xff)));
+        Assert.assertEquals("i42e", bencode(bytes(0xc1, 0x18, 0x2a)));
+    }
+
+    @Test
+    public void roundTrip() throws IOException {
+        String input = "d4:infod6:lengthi10e4:name4:file6:pieces3:\u0001\u00fe\u0000e4:listli-1ei99999999999999999999999eee";
+        Assert.assertEquals(input, bencode(cbor(input)));
+    }
+
+    @Test
+    public void unsupported() throws IOException {
+        for (byte[] cbor : new byte[][]{bytes(0xf6), bytes(0xf9, 0x3c, 0x00), bytes(0xa1, 0x01, 0x02)}) {
+            try {
+                bencode(cbor);
+                Assert.fail();
+            } catch (ConversionException expected) {
+                // no bencode form
+            }
+        }
+    }
+}
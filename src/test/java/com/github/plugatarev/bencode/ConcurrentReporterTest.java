@@ -0,0 +1,76 @@
+package com.github.plugatarev.bencode;
+
+import com.github.plugatarev.bencode.error.ConcurrentReporter;
+import com.github.plugatarev.bencode.error.CountingReporter;
+import com.github.plugatarev.bencode.error.ErrorKind;
+import com.github.plugatarev.bencode.parser.Element;
+import com.github.plugatarev.bencode.parser.Parser;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+public class ConcurrentReporterTest {
+
+    private static ByteBuffer bytes(String input) {
+        return ByteBuffer.wrap(input.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    public void countsByKind() {
+        CountingReporter reporter = new CountingReporter();
+        Assert.assertNull(Parser.parse(bytes("i01e"), reporter));
+        Assert.assertNull(Parser.parse(bytes("d4:spami1e3:keyi2ee"), reporter));
+        Assert.assertEquals(1, reporter.count(ErrorKind.LEXICAL));
+        Assert.assertEquals(1, reporter.count(ErrorKind.KEY_ORDER));
+        Assert.assertTrue(reporter.hasError());
+    }
+
+    @Test
+    public void countingSessionsAreIndependent() {
+        CountingReporter reporter = new CountingReporter();
+        Assert.assertNull(Parser.parse(bytes("i01e"), reporter.session()));
+        Assert.assertEquals(new Element.BInteger(1), Parser.parse(bytes("i1e"), reporter.session()));
+        Assert.assertEquals(1, reporter.count(ErrorKind.LEXICAL));
+    }
+
+    @Test
+    public void neverStoppingReporterSkipsStrayEnd() {
+        CountingReporter reporter = new CountingReporter();
+        Assert.assertNull(Parser.parse(bytes("ei1e"), reporter.session()));
+        Assert.assertNull(Parser.parse(bytes("d1:ae"), reporter.session()));
+        Assert.assertTrue(reporter.count(ErrorKind.SYNTAX) >= 2);
+    }
+
+    @Test
+    public void sessionsFromManyThreads() {
+        ConcurrentReporter reporter = new ConcurrentReporter(10);
+        long valid = IntStream.range(0, 1000).parallel()
+                .filter(i -> Parser.parse(bytes(i % 2 == 0 ? "i1e" : "d4:spami1e3:keyi2ee"), reporter.session()) != null)
+                .count();
+        Assert.assertEquals(500, valid);
+        Assert.assertEquals(500, reporter.count(ErrorKind.KEY_ORDER));
+        Assert.assertEquals(500, reporter.count());
+
+        StringWriter writer = new StringWriter();
+        reporter.flushAsync(writer, ForkJoinPool.commonPool()).join();
+        Assert.assertEquals(10, writer.toString().split("broken").length - 1);
+    }
+
+    @Test
+    public void queueIsReusedAfterFlush() {
+        ConcurrentReporter reporter = new ConcurrentReporter(1);
+        reporter.report("first\n");
+        reporter.report("dropped\n");
+        StringWriter writer = new StringWriter();
+        reporter.flush(writer);
+        reporter.report(ErrorKind.IO, "second\n");
+        reporter.flush(writer);
+        Assert.assertEquals("first\nsecond\n", writer.toString());
+        Assert.assertEquals(3, reporter.count());
+    }
+}
@@ -0,0 +1,91 @@
+package com.github.plugatarev.bencode;
+
+import com.github.plugatarev.bencode.parser.Element;
+import com.github.plugatarev.bencode.parser.IncrementalParser;
+import com.github.plugatarev.bencode.parser.Parser;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class IncrementalParserTest {
+    private static final String INPUT =
+            "d3:cow3:moo3:keyd2:bb3:hhh2:ffd4:keysl1:i1:d1:l1:eeee4:spaml4:infoi-343242ei123456789012345678901234567890e5:6$%!$ee";
+
+    private static ByteBuffer bytes(String input) {
+        return ByteBuffer.wrap(input.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static List<Element> feedInChunks(IncrementalParser parser, String input, int chunkSize) {
+        List<Element> values = new ArrayList<>();
+        ByteBuffer chunk = ByteBuffer.allocate(chunkSize);
+        byte[] data = input.getBytes(StandardCharsets.US_ASCII);
+        for (int i = 0; i < data.length; i += chunkSize) {
+            chunk.clear();
+            chunk.put(data, i, Math.min(chunkSize, data.length - i)).flip();
+            Element value;
+            while ((value = parser.feed(chunk)) != null) {
+                values.add(value);
+            }
+        }
+        return values;
+    }
+
+    @Test
+    public void anyChunkSize() {
+        Element expected = Parser.parse(bytes(INPUT), new TestReporter());
+        for (int chunkSize = 1; chunkSize <= INPUT.length(); chunkSize++) {
+            IncrementalParser parser = new IncrementalParser(new TestReporter());
+            Assert.assertEquals(List.of(expected), feedInChunks(parser, INPUT, chunkSize));
+            Assert.assertTrue(parser.finish());
+        }
+    }
+
+    @Test
+    public void severalValues() {
+        IncrementalParser parser = new IncrementalParser(new TestReporter());
+        ByteBuffer chunk = bytes("i1e0:le");
+        Assert.assertEquals(new Element.BInteger(1), parser.feed(chunk));
+        Assert.assertEquals(new Element.BString(""), parser.feed(chunk));
+        Assert.assertEquals(new Element.BList(List.of()), parser.feed(chunk));
+        Assert.assertNull(parser.feed(chunk));
+        Assert.assertTrue(parser.isIdle());
+    }
+
+    @Test
+    public void needMoreInput() {
+        IncrementalParser parser = new IncrementalParser(new TestReporter());
+        Assert.assertNull(parser.feed(bytes("d3:key5:va")));
+        Assert.assertFalse(parser.isIdle());
+        Assert.assertEquals(new Element.BDictionary(Map.of(new Element.BString("key"), new Element.BString("value"))),
+                parser.feed(bytes("luee")));
+    }
+
+    @Test
+    public void errors() {
+        String[] inputs = {"i01e", "i-0e", "d4:spami1e3:keyi2ee", "d1:ae", "di1ei2ee", "e", "l*e", "i-e", "99999999999:a"};
+        for (String input : inputs) {
+            TestReporter reporter = new TestReporter();
+            IncrementalParser parser = new IncrementalParser(reporter);
+            Assert.assertEquals(input, List.of(), feedInChunks(parser, input, 2));
+            Assert.assertTrue(input, parser.hasFailed());
+            Assert.assertTrue(input, reporter.hasError());
+        }
+    }
+
+    @Test
+    public void truncatedInput() {
+        TestReporter reporter = new TestReporter();
+        IncrementalParser parser = new IncrementalParser(reporter);
+        Assert.assertNull(parser.feed(bytes("l5:abc")));
+        Assert.assertFalse(parser.finish());
+        Assert.assertTrue(reporter.hasError());
+
+        parser.reset();
+        Assert.assertEquals(new Element.BInteger(5), parser.feed(bytes("i5e")));
+    }
+}
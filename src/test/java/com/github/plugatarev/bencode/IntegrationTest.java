@@ -65,7 +65,7 @@ public class IntegrationTest {
         String input = "d3:bar4:spam3:fooi42ee";
         String expected = """
                 {
-                  "bar": "spam"
+                  "bar": "spam",
                   "foo": 42
                 }""";
         test(input, expected);
@@ -76,15 +76,13 @@ public class IntegrationTest {
         String input = "d3:cow3:moo3:keyd2:bb3:hhh2:ffd4:keysl1:i1:d1:l1:eeee4:spaml4:infoi343242e5:6$%!$ee";
         String expected = """
                 {
-                  "cow": "moo"
-                  "key":\s
-                  {
-                    "bb": "hhh"
-                    "ff":\s
-                    {
+                  "cow": "moo",
+                  "key": {
+                    "bb": "hhh",
+                    "ff": {
                       "keys": ["i", "d", "l", "e"]
                     }
-                  }
+                  },
                   "spam": ["info", 343242, "6$%!$"]
                 }""";
         test(input, expected);
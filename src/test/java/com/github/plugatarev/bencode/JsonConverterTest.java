@@ -1,9 +1,15 @@
 package com.github.plugatarev.bencode;
 
+import com.github.plugatarev.bencode.lexer.ByteInput;
+import com.github.plugatarev.bencode.parser.BencodeReader;
 import com.github.plugatarev.bencode.parser.Element;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 
 public class JsonConverterTest {
@@ -44,7 +50,7 @@ public class JsonConverterTest {
         Element input = new Element.BDictionary(dict);
         String expected = """
                 {
-                  "bar": "spam"
+                  "bar": "spam",
                   "foo": 42
                 }""";
         test(input, expected);
@@ -80,15 +86,60 @@ public class JsonConverterTest {
         Element input = new Element.BDictionary(map);
         String expected = """
                 {
-                  "a": [123, "key", "he||0"]
-                  "b": "dfg"
-                  "c": 43
-                  "d":\s
-                  {
-                    "bar": "spam"
+                  "a": [123, "key", "he||0"],
+                  "b": "dfg",
+                  "c": 43,
+                  "d": {
+                    "bar": "spam",
                     "foo": 42
                   }
                 }""";
         test(input, expected);
     }
+
+    @Test
+    public void escaping(){
+        Element input = new Element.BString("a\"b\\c\n\u0001\u00e9");
+        test(input, "\"a\\\"b\\\\c\\n\\u0001\u00e9\"");
+    }
+
+    @Test
+    public void binaryString(){
+        Element input = new Element.BString(new byte[]{'a', (byte) 0xFF, 0});
+        test(input, "\"a\\u00ff\\u0000\"");
+    }
+
+    @Test
+    public void dictionaryWithinList(){
+        Map<Element.BString, Element> dict = new LinkedHashMap<>();
+        dict.put(new Element.BString("a"), new Element.BInteger(1));
+        Element input = new Element.BList(List.of(new Element.BDictionary(dict), new Element.BDictionary(Map.of())));
+        String expected = """
+                [{
+                  "a": 1
+                }, {}]""";
+        test(input, expected);
+    }
+
+    @Test
+    public void compact(){
+        Map<Element.BString, Element> dict = new LinkedHashMap<>();
+        dict.put(new Element.BString("a"), new Element.BList(List.of(new Element.BInteger(-1), new Element.BString("x"))));
+        dict.put(new Element.BString("b"), new Element.BDictionary(Map.of()));
+        Assert.assertEquals("{\"a\":[-1,\"x\"],\"b\":{}}", new JsonConverter(true).json(new Element.BDictionary(dict)));
+    }
+
+    @Test
+    public void fromReader() throws IOException {
+        byte[] input = "d3:bar4:spam3:fool1:xi42eee".getBytes(StandardCharsets.US_ASCII);
+        BencodeReader reader = new BencodeReader(ByteInput.wrap(ByteBuffer.wrap(input)), new TestReporter());
+        StringWriter out = new StringWriter();
+        converter.json(reader, out);
+        String expected = """
+                {
+                  "bar": "spam",
+                  "foo": ["x", 42]
+                }""";
+        Assert.assertEquals(expected, out.toString());
+    }
 }
@@ -0,0 +1,78 @@
+package com.github.plugatarev.bencode;
+
+import com.github.plugatarev.bencode.convert.BencodeSink;
+import com.github.plugatarev.bencode.convert.ConversionException;
+import com.github.plugatarev.bencode.convert.JsonSource;
+import com.github.plugatarev.bencode.parser.Element;
+import com.github.plugatarev.bencode.parser.Parser;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+public class JsonSourceTest {
+    private static final TestReporter errorReporter = new TestReporter();
+
+    private static String bencode(String json, int memoryLimit) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (BencodeSink sink = new BencodeSink(out, memoryLimit)) {
+            JsonSource.copy(new StringReader(json), sink);
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static String bencode(String json) throws IOException {
+        return bencode(json, BencodeSink.DEFAULT_MEMORY_LIMIT);
+    }
+
+    @Test
+    public void sortsKeys() throws IOException {
+        Assert.assertEquals("d1:ali1e1:xi-5ei12345678901234567890123ei0ee1:bi1e1:cd1:yde1:z2:\u00c3\u00a9ee",
+                new String(bencode("{\"b\": 1, \"a\": [true, \"x\", -5, 12345678901234567890123, false],"
+                        + " \"c\": {\"z\": \"\\u00e9\", \"y\": {}}}").getBytes(StandardCharsets.UTF_8), StandardCharsets.ISO_8859_1));
+    }
+
+    @Test
+    public void integralNumbers() throws IOException {
+        Assert.assertEquals("li100ei-2ei0ei15ei0ee", bencode(" [1e2, -2.0, 0, 1.5e1, 0e-999999999] "));
+    }
+
+    @Test
+    public void spillsLargeDictionaries() throws IOException {
+        StringBuilder json = new StringBuilder("{");
+        for (int i = 5000; i > 0; i--) {
+            if (i < 5000) json.append(',');
+            json.append("\"k").append(i).append("\": {\"v\": \"").append("x".repeat(i % 50)).append("\"}");
+        }
+        json.append('}');
+        String small = bencode(json.toString(), 256);
+        Assert.assertEquals(bencode(json.toString()), small);
+        Element element = Parser.parse(ByteBuffer.wrap(small.getBytes(StandardCharsets.US_ASCII)), errorReporter);
+        Assert.assertNotNull(element);
+        Assert.assertEquals(5000, ((Element.BDictionary) element).dict().size());
+    }
+
+    @Test
+    public void roundTrip() throws IOException {
+        String input = "d4:infod6:lengthi10e4:name4:filee5:peersll1:a1:bei3eee";
+        Element element = Parser.parse(ByteBuffer.wrap(input.getBytes(StandardCharsets.US_ASCII)), errorReporter);
+        Assert.assertEquals(input, bencode(new JsonConverter().json(element)));
+    }
+
+    @Test
+    public void unsupported() throws IOException {
+        for (String json : new String[]{"null", "1.5", "{\"a\": 1, \"a\": 2}", "[1,]", "{\"a\" 1}", "[1] 2", "\"abc",
+                "1e999999999", "1e-999999999"}) {
+            try {
+                bencode(json);
+                Assert.fail(json);
+            } catch (ConversionException expected) {
+                // no bencode form
+            }
+        }
+    }
+}
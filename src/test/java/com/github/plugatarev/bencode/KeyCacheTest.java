@@ -0,0 +1,63 @@
+package com.github.plugatarev.bencode;
+
+import com.github.plugatarev.bencode.lexer.ByteInput;
+import com.github.plugatarev.bencode.parser.BencodeReader;
+import com.github.plugatarev.bencode.parser.Element;
+import com.github.plugatarev.bencode.parser.Event;
+import com.github.plugatarev.bencode.parser.KeyCache;
+import com.github.plugatarev.bencode.parser.Parser;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+public class KeyCacheTest {
+    private static final String INPUT = "d8:announce3:url4:infod6:lengthi10e4:name4:fileee";
+
+    private static ByteBuffer bytes(String input) {
+        return ByteBuffer.wrap(input.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static Element.BString firstKey(Element element) {
+        return ((Element.BDictionary) element).dict().keySet().iterator().next();
+    }
+
+    @Test
+    public void sameKeyInstanceAcrossParses() {
+        KeyCache cache = new KeyCache(64);
+        Element first = Parser.parse(ByteInput.wrap(bytes(INPUT)), new TestReporter(), cache);
+        Element second = Parser.parse(ByteInput.wrap(bytes(INPUT)), new TestReporter(), cache);
+        Assert.assertEquals(Parser.parse(bytes(INPUT), new TestReporter()), first);
+        Assert.assertSame(firstKey(first), firstKey(second));
+        Assert.assertSame(cache.intern("announce"), firstKey(second));
+    }
+
+    @Test
+    public void cachedKeysDoNotShareInput() {
+        KeyCache cache = new KeyCache(64);
+        ByteBuffer input = bytes(INPUT);
+        Element element = Parser.parse(ByteInput.wrap(input), new TestReporter(), cache);
+        input.put(3, (byte) 'X');
+        Assert.assertEquals(new Element.BString("announce"), firstKey(element));
+    }
+
+    @Test
+    public void boundedSize() {
+        KeyCache cache = new KeyCache(4);
+        Element.BString a = cache.intern("a");
+        for (int i = 0; i < 100; i++) {
+            Assert.assertEquals(new Element.BString("k" + i), cache.intern("k" + i));
+        }
+        Assert.assertEquals(a, cache.intern("a"));
+    }
+
+    @Test
+    public void readerKeys() {
+        KeyCache cache = new KeyCache(16);
+        BencodeReader reader = new BencodeReader(ByteInput.wrap(bytes("d4:infoi1ee")), new TestReporter(), cache);
+        Assert.assertEquals(Event.START_DICT, reader.next());
+        Assert.assertEquals(Event.KEY, reader.next());
+        Assert.assertSame(cache.intern("info"), reader.stringValue());
+    }
+}
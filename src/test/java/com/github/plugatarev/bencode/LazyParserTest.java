@@ -0,0 +1,72 @@
+package com.github.plugatarev.bencode;
+
+import com.github.plugatarev.bencode.parser.Element;
+import com.github.plugatarev.bencode.parser.LazyParser;
+import com.github.plugatarev.bencode.parser.Parser;
+import com.github.plugatarev.bencode.parser.ParserException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+public class LazyParserTest {
+    private static final TestReporter errorReporter = new TestReporter();
+
+    private static Element parse(String input) {
+        return LazyParser.parse(ByteBuffer.wrap(input.getBytes(StandardCharsets.US_ASCII)), errorReporter);
+    }
+
+    private static Map<Element.BString, Element> dict(Element element) {
+        return ((Element.BDictionary) element).dict();
+    }
+
+    @Test
+    public void lookup() {
+        Element element = parse("d8:announce3:url4:infod6:lengthi10e4:name4:filee6:piecesl1:a1:bee");
+        Map<Element.BString, Element> info = dict(dict(element).get(new Element.BString("info")));
+        Assert.assertEquals(new Element.BInteger(10), info.get(new Element.BString("length")));
+        Assert.assertEquals(new Element.BString("url"), dict(element).get(new Element.BString("announce")));
+        Assert.assertNull(dict(element).get(new Element.BString("missing")));
+        Assert.assertEquals(3, dict(element).size());
+    }
+
+    @Test
+    public void sameAsEagerParse() {
+        String input = "d3:cow3:moo3:keyd2:bb3:hhh2:ffd4:keysl1:i1:d1:l1:eeee4:spaml4:infoi343242e5:6$%!$ee";
+        Element eager = Parser.parse(ByteBuffer.wrap(input.getBytes(StandardCharsets.US_ASCII)), errorReporter);
+        Assert.assertEquals(eager, parse(input));
+        Assert.assertEquals(new JsonConverter().json(eager), new JsonConverter().json(parse(input)));
+    }
+
+    @Test
+    public void list() {
+        List<Element> list = ((Element.BList) parse("li1e0:l1:xee")).list();
+        Assert.assertEquals(3, list.size());
+        Assert.assertEquals(new Element.BString(""), list.get(1));
+        Assert.assertSame(list.get(2), list.get(2));
+    }
+
+    @Test
+    public void malformedStructure() {
+        Assert.assertNull(parse("d3:keyl1:a"));
+        Assert.assertNull(parse("i1ei2e"));
+        Assert.assertNull(parse("l5:abce"));
+        Assert.assertTrue(errorReporter.hasError());
+        errorReporter.clear();
+    }
+
+    @Test(expected = ParserException.class)
+    public void errorInsideValueOnAccess() {
+        Element element = parse("d1:ai01e1:bi2ee");
+        Assert.assertEquals(new Element.BInteger(2), dict(element).get(new Element.BString("b")));
+        dict(element).get(new Element.BString("a"));
+    }
+
+    @Test(expected = ParserException.class)
+    public void incorrectLexicographicOrderOnAccess() {
+        dict(parse("d4:spami1e3:keyi2ee")).size();
+    }
+}
@@ -8,7 +8,11 @@ import org.junit.Assert;
 import org.junit.Test;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
 import java.io.StringReader;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 import static org.hamcrest.CoreMatchers.is;
@@ -27,6 +31,16 @@ public class LexerTest {
         return Lexer.scan(br, errorReporter);
     }
 
+    private static List<Token> scanBytes(byte[] bytes) {
+        List<Token> tokens = Lexer.scan(new ByteArrayInputStream(bytes), errorReporter);
+        errorReporter.clear();
+        return tokens;
+    }
+
+    private static List<TokenType> types(List<Token> tokens) {
+        return tokens == null ? null : tokens.stream().map(Token::tokenType).toList();
+    }
+
     private static void assertTypes(List<TokenType> types, TokenType... expected) {
         MatcherAssert.assertThat(types, is(List.of(expected)));
     }
@@ -64,7 +78,7 @@ public class LexerTest {
         List<Token> tokens = scant("i-213e");
         assertTypes(tokens.stream().map(Token::tokenType).toList(),
                 TokenType.INTEGER_BEGIN, TokenType.INTEGER, TokenType.END_TYPE, TokenType.EOF);
-        Assert.assertEquals(-213, tokens.get(1).value());
+        Assert.assertEquals(-213L, tokens.get(1).value());
     }
 
     @Test
@@ -120,7 +134,25 @@ public class LexerTest {
 
     @Test
     public void numberMoreThanMaxInteger(){
-        Assert.assertNull(scan("i234324343243424e"));
+        Assert.assertEquals(234324343243424L, scant("i234324343243424e").get(1).value());
+    }
+
+    @Test
+    public void numberMoreThanMaxLong(){
+        Assert.assertEquals(new BigInteger("-92233720368547758080"), scant("i-92233720368547758080e").get(1).value());
+    }
+
+    @Test
+    public void bytesNumberMoreThanMaxInteger(){
+        List<Token> tokens = scanBytes("li4294967296ei-9223372036854775808ei18446744073709551616ee".getBytes(StandardCharsets.US_ASCII));
+        Assert.assertEquals(4294967296L, tokens.get(2).value());
+        Assert.assertEquals(Long.MIN_VALUE, tokens.get(5).value());
+        Assert.assertEquals(BigInteger.ONE.shiftLeft(64), tokens.get(8).value());
+    }
+
+    @Test
+    public void stringLengthMoreThanMaxInteger(){
+        Assert.assertNull(scanBytes("4294967296:x".getBytes(StandardCharsets.US_ASCII)));
     }
 
     @Test
@@ -134,4 +166,51 @@ public class LexerTest {
         String negativeZero = "i-0e";
         Assert.assertNull(scan(negativeZero));
     }
+
+    @Test
+    public void binaryString() {
+        byte[] bytes = {'4', ':', (byte) 0xFF, '\n', 0, (byte) 0x80};
+        List<Token> tokens = scanBytes(bytes);
+        assertTypes(types(tokens), TokenType.STRING_BEGIN, TokenType.SEPARATOR, TokenType.STRING, TokenType.EOF);
+        Assert.assertEquals(ByteBuffer.wrap(new byte[]{(byte) 0xFF, '\n', 0, (byte) 0x80}), tokens.get(2).value());
+    }
+
+    @Test
+    public void bytesAfterNewLine() {
+        assertTypes(types(scanBytes("l1:\ni7ee".getBytes(StandardCharsets.US_ASCII))),
+                TokenType.LIST, TokenType.STRING_BEGIN, TokenType.SEPARATOR, TokenType.STRING,
+                TokenType.INTEGER_BEGIN, TokenType.INTEGER, TokenType.END_TYPE, TokenType.END_TYPE, TokenType.EOF);
+    }
+
+    @Test
+    public void inputLargerThanChunk() {
+        String payload = "x".repeat(20000);
+        List<Token> tokens = scanBytes(("l20000:" + payload + "i1ee").getBytes(StandardCharsets.US_ASCII));
+        Assert.assertEquals(ByteBuffer.wrap(payload.getBytes(StandardCharsets.US_ASCII)), tokens.get(3).value());
+        Assert.assertEquals(20007, tokens.get(4).pos());
+    }
+
+    @Test
+    public void byteBuffer() {
+        List<Token> tokens = Lexer.scan(ByteBuffer.wrap("i-213e".getBytes(StandardCharsets.US_ASCII)), errorReporter);
+        assertTypes(types(tokens), TokenType.INTEGER_BEGIN, TokenType.INTEGER, TokenType.END_TYPE, TokenType.EOF);
+        Assert.assertEquals(-213L, tokens.get(1).value());
+    }
+
+    @Test
+    public void zeroLengthBytes() {
+        assertTypes(types(scanBytes("0:".getBytes(StandardCharsets.US_ASCII))),
+                TokenType.STRING_BEGIN, TokenType.SEPARATOR, TokenType.STRING, TokenType.EOF);
+    }
+
+    @Test
+    public void truncatedBinaryString() {
+        Assert.assertNull(scanBytes("5:ab".getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    @Test
+    public void bytesStartingFromZeros() {
+        Assert.assertNull(scanBytes("i-0e".getBytes(StandardCharsets.US_ASCII)));
+        Assert.assertNull(scanBytes("03:abc".getBytes(StandardCharsets.US_ASCII)));
+    }
 }
@@ -0,0 +1,100 @@
+package com.github.plugatarev.bencode;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+public class MainTest {
+    private static final String INPUT = "d3:bar4:spam3:fooli42ei-1eee";
+    private static final String EXPECTED = """
+            {
+              "bar": "spam",
+              "foo": [42, -1]
+            }""";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void plainFiles() throws IOException {
+        Path input = folder.getRoot().toPath().resolve("in.torrent");
+        Path output = folder.getRoot().toPath().resolve("out.json");
+        Files.writeString(input, INPUT, StandardCharsets.US_ASCII);
+        Main.convert(input.toString(), output.toString());
+        Assert.assertEquals(EXPECTED, Files.readString(output));
+    }
+
+    @Test
+    public void gzipBothWays() throws IOException {
+        Path input = folder.getRoot().toPath().resolve("in.torrent.gz");
+        Path output = folder.getRoot().toPath().resolve("out.json.gz");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(input))) {
+            out.write(INPUT.getBytes(StandardCharsets.US_ASCII));
+        }
+        Main.convert(input.toString(), output.toString());
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(output))) {
+            Assert.assertEquals(EXPECTED, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void errorsGoToOutput() throws IOException {
+        Path input = folder.getRoot().toPath().resolve("bad.torrent");
+        Path output = folder.getRoot().toPath().resolve("bad.json");
+        Files.writeString(input, "d3:bari01ee", StandardCharsets.US_ASCII);
+        Main.convert(input.toString(), output.toString());
+        String errors = Files.readString(output);
+        Assert.assertTrue(errors.contains("01"));
+        Assert.assertFalse(errors.startsWith("{"));
+        try (Stream<Path> files = Files.list(folder.getRoot().toPath())) {
+            Assert.assertEquals(2, files.count());
+        }
+    }
+
+    @Test
+    public void trailingDataIsAnError() throws IOException {
+        Path input = folder.getRoot().toPath().resolve("two.torrent");
+        Path output = folder.getRoot().toPath().resolve("two.json");
+        Files.writeString(input, "i1ei2e", StandardCharsets.US_ASCII);
+        Main.convert(input.toString(), output.toString());
+        Assert.assertTrue(Files.readString(output).contains("Expected tokens: [EOF]"));
+    }
+
+    @Test
+    public void standardStreams() throws IOException {
+        InputStream stdin = System.in;
+        PrintStream stdout = System.out;
+        PrintStream stderr = System.err;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        PrintStream printOut = new PrintStream(out, true, StandardCharsets.UTF_8);
+        try {
+            System.setIn(new ByteArrayInputStream("i1exyz".getBytes(StandardCharsets.US_ASCII)));
+            System.setOut(printOut);
+            System.setErr(new PrintStream(err, true, StandardCharsets.UTF_8));
+            Main.convert("-", "-");
+            printOut.print("!");
+        } finally {
+            System.setIn(stdin);
+            System.setOut(stdout);
+            System.setErr(stderr);
+        }
+        Assert.assertFalse(printOut.checkError());
+        Assert.assertEquals("1!", out.toString(StandardCharsets.UTF_8));
+        Assert.assertTrue(err.toString(StandardCharsets.UTF_8).contains("Unknown char 'x'"));
+    }
+}
@@ -0,0 +1,93 @@
+package com.github.plugatarev.bencode;
+
+import com.github.plugatarev.bencode.convert.BencodeSink;
+import com.github.plugatarev.bencode.convert.BencodeSource;
+import com.github.plugatarev.bencode.convert.ConversionException;
+import com.github.plugatarev.bencode.convert.MsgPackSink;
+import com.github.plugatarev.bencode.convert.MsgPackSource;
+import com.github.plugatarev.bencode.lexer.ByteInput;
+import com.github.plugatarev.bencode.parser.BencodeReader;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+public class MsgPackTest {
+    private static final TestReporter errorReporter = new TestReporter();
+
+    private static byte[] msgPack(String bencode, int memoryLimit) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BencodeReader reader = new BencodeReader(ByteInput.wrap(ByteBuffer.wrap(bencode.getBytes(StandardCharsets.ISO_8859_1))), errorReporter);
+        try (MsgPackSink sink = new MsgPackSink(out, memoryLimit)) {
+            BencodeSource.copy(reader, sink);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] msgPack(String bencode) throws IOException {
+        return msgPack(bencode, MsgPackSink.DEFAULT_MEMORY_LIMIT);
+    }
+
+    private static String bencode(byte[] msgPack) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (BencodeSink sink = new BencodeSink(out)) {
+            MsgPackSource.copy(new ByteArrayInputStream(msgPack), sink);
+        }
+        return out.toString(StandardCharsets.ISO_8859_1);
+    }
+
+    private static byte[] bytes(int... values) {
+        byte[] bytes = new byte[values.length];
+        for (int i = 0; i < values.length; i++) {
+            bytes[i] = (byte) values[i];
+        }
+        return bytes;
+    }
+
+    @Test
+    public void encoding() throws IOException {
+        Assert.assertArrayEquals(bytes(0x81, 0xa1, 'a', 0x01), msgPack("d1:ai1ee"));
+        Assert.assertArrayEquals(bytes(0x93, 0xff, 0xcc, 0xc8, 0xd1, 0xfc, 0x18), msgPack("li-1ei200ei-1000ee"));
+        Assert.assertArrayEquals(bytes(0xc4, 0x01, 0xff), msgPack("1:\u00ff"));
+        Assert.assertArrayEquals(bytes(0xcf, 0xff, 0xff, 0xff, 0xff, 0xff, 0xff, 0xff, 0xff), msgPack("i18446744073709551615e"));
+    }
+
+    @Test
+    public void decoding() throws IOException {
+        Assert.assertEquals("d1:ai1e1:bli1ei0eee", bencode(bytes(0x82, 0xa1, 'b', 0x92, 0xc3, 0xc2, 0xa1, 'a', 0x01)));
+        Assert.assertEquals("i-9223372036854775808e", bencode(bytes(0xd3, 0x80, 0, 0, 0, 0, 0, 0, 0)));
+    }
+
+    @Test
+    public void roundTripWithSpilling() throws IOException {
+        StringBuilder input = new StringBuilder("l");
+        for (int i = 0; i < 3000; i++) {
+            input.append("d4:namei").append(i).append("e4:size5:").append(String.format("%05d", i)).append('e');
+        }
+        input.append("e");
+        Assert.assertArrayEquals(msgPack(input.toString()), msgPack(input.toString(), 256));
+        Assert.assertEquals(input.toString(), bencode(msgPack(input.toString(), 256)));
+    }
+
+    @Test
+    public void unsupported() throws IOException {
+        try {
+            msgPack("i99999999999999999999999e");
+            Assert.fail();
+        } catch (ConversionException expected) {
+            // does not fit
+        }
+        for (byte[] msgPack : new byte[][]{bytes(0xc0), bytes(0xca, 0, 0, 0, 0), bytes(0x81, 0x01, 0x02)}) {
+            try {
+                bencode(msgPack);
+                Assert.fail();
+            } catch (ConversionException expected) {
+                // no bencode form
+            }
+        }
+    }
+}
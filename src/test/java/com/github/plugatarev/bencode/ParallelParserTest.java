@@ -0,0 +1,145 @@
+package com.github.plugatarev.bencode;
+
+import com.github.plugatarev.bencode.error.BencodeError;
+import com.github.plugatarev.bencode.error.ErrorReporter;
+import com.github.plugatarev.bencode.parser.Element;
+import com.github.plugatarev.bencode.parser.ParallelParser;
+import com.github.plugatarev.bencode.lexer.TokenType;
+import com.github.plugatarev.bencode.parser.Parser;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+public class ParallelParserTest {
+    private static final TestReporter errorReporter = new TestReporter();
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static ByteBuffer bytes(String input) {
+        return ByteBuffer.wrap(input.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static ErrorReporter collecting(List<BencodeError> errors) {
+        return new ErrorReporter() {
+            @Override
+            public boolean report(String message) {
+                return true;
+            }
+
+            @Override
+            public boolean report(BencodeError error) {
+                errors.add(error);
+                return true;
+            }
+
+            @Override
+            public boolean hasError() {
+                return !errors.isEmpty();
+            }
+        };
+    }
+
+    private static String archive(int members) {
+        StringBuilder sb = new StringBuilder("l");
+        for (int i = 0; i < members; i++) {
+            sb.append("d8:completei").append(i).append("e4:infol3:abci-").append(i % 7 + 1)
+                    .append("ee4:name").append(String.valueOf(i).length() + 5).append(":file-").append(i).append("e");
+        }
+        return sb.append("e").toString();
+    }
+
+    @Test
+    public void sameAsParser() {
+        String input = archive(50_000);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            Element parallel = ParallelParser.parse(bytes(input), errorReporter, pool);
+            Assert.assertEquals(Parser.parse(bytes(input), errorReporter), parallel);
+            Assert.assertEquals(50_000, ((Element.BList) parallel).list().size());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void smallAndNonListInput() {
+        Assert.assertEquals(Parser.parse(bytes("le"), errorReporter), ParallelParser.parse(bytes("le"), errorReporter));
+        Assert.assertEquals(new Element.BInteger(5), ParallelParser.parse(bytes("i5e"), errorReporter));
+        Assert.assertEquals(Parser.parse(bytes("l1:ai2ee"), errorReporter),
+                ParallelParser.parse(bytes("l1:ai2ee"), errorReporter));
+        Assert.assertFalse(errorReporter.hasError());
+    }
+
+    @Test
+    public void errorOffsetsAreAbsolute() {
+        String input = archive(20_000);
+        int bad = input.indexOf("i-3e", input.length() / 2) + 1;
+        String broken = input.substring(0, bad) + "-0" + input.substring(bad + 2);
+        List<BencodeError> errors = new ArrayList<>();
+        Assert.assertNull(ParallelParser.parse(bytes(broken), collecting(errors)));
+        Assert.assertEquals(BencodeError.Code.NUMBER_WITH_DEAD_ZEROS, errors.get(0).code());
+        Assert.assertEquals(bad, errors.get(0).offset());
+    }
+
+    private Element parseFile(String input, ErrorReporter reporter, int windowSize) throws IOException {
+        Path path = folder.newFile().toPath();
+        Files.writeString(path, input, StandardCharsets.US_ASCII);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return ParallelParser.parse(channel, reporter, pool, windowSize);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void fileScannedThroughSmallWindows() throws IOException {
+        String input = archive(50_000);
+        Element parallel = parseFile(input, errorReporter, 4096);
+        Assert.assertEquals(Parser.parse(bytes(input), errorReporter), parallel);
+        Assert.assertFalse(errorReporter.hasError());
+    }
+
+    @Test
+    public void membersLargerThanTheWindow() throws IOException {
+        String large = "x".repeat(10_000);
+        String input = "li1e" + large.length() + ":" + large + "l" + large.length() + ":" + large + "ei2ee";
+        Assert.assertEquals(Parser.parse(bytes(input), errorReporter), parseFile(input, errorReporter, 1024));
+        Assert.assertFalse(errorReporter.hasError());
+    }
+
+    @Test
+    public void fileErrorOffsetsAreAbsolute() throws IOException {
+        String input = archive(20_000);
+        int bad = input.indexOf("4:name", input.length() / 2);
+        String broken = input.substring(0, bad) + "*" + input.substring(bad + 1);
+        List<BencodeError> errors = new ArrayList<>();
+        Assert.assertNull(parseFile(broken, collecting(errors), 4096));
+        Assert.assertEquals(BencodeError.Code.UNKNOWN_CHAR, errors.get(0).code());
+        Assert.assertEquals(bad, errors.get(0).offset());
+        errors.clear();
+        Assert.assertNull(parseFile(input.substring(0, input.length() - 1), collecting(errors), 4096));
+        Assert.assertEquals(TokenType.EOF, errors.get(0).actual());
+    }
+
+    @Test
+    public void malformedStructure() {
+        Assert.assertNull(ParallelParser.parse(bytes("li1e"), errorReporter));
+        Assert.assertNull(ParallelParser.parse(bytes("li1eei2e"), errorReporter));
+        Assert.assertTrue(errorReporter.hasError());
+        errorReporter.clear();
+    }
+}
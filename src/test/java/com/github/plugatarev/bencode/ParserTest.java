@@ -7,6 +7,10 @@ import com.github.plugatarev.bencode.parser.Parser;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -147,6 +151,64 @@ public class ParserTest {
         errorReporter.clear();
     }
 
+    @Test
+    public void singlePass(){
+        Element element = parseBytes("d3:keyl7:generici42ee4:spami-1ee");
+        Map<Element.BString, Element> dict = new HashMap<>();
+        dict.put(new Element.BString("key"), new Element.BList(List.of(new Element.BString("generic"), new Element.BInteger(42))));
+        dict.put(new Element.BString("spam"), new Element.BInteger(-1));
+        Assert.assertEquals(new Element.BDictionary(dict), element);
+    }
+
+    @Test
+    public void singlePassIncorrectLexicographicOrder(){
+        Assert.assertNull(parseBytes("d4:spami1e3:keyi2ee"));
+        errorReporter.clear();
+    }
+
+    @Test
+    public void singlePassWithoutEndSymbol(){
+        Assert.assertNull(parseBytes("l3:key"));
+        errorReporter.clear();
+    }
+
+    @Test
+    public void singlePassKeyNotString(){
+        Assert.assertNull(parseBytes("di123e7:generice"));
+        errorReporter.clear();
+    }
+
+    @Test
+    public void binaryString(){
+        byte[] input = {'l', '2', ':', (byte) 0xC3, (byte) 0x28, 'e'};
+        Element element = Parser.parse(ByteBuffer.wrap(input), errorReporter);
+        Element.BString expected = new Element.BString(new byte[]{(byte) 0xC3, (byte) 0x28});
+        Assert.assertEquals(new Element.BList(List.of(expected)), element);
+    }
+
+    @Test
+    public void byteOrderOfKeys(){
+        Element.BString high = new Element.BString(new byte[]{(byte) 0xE0});
+        Assert.assertTrue(high.compareTo(new Element.BString("z")) > 0);
+        Assert.assertTrue(new Element.BString("ab").compareTo(new Element.BString("abc")) < 0);
+    }
+
+    @Test
+    public void largeNumbers(){
+        Element element = parseBytes("d6:lengthi5368709120e5:wholei-123456789012345678901234567890ee");
+        Element.BDictionary dict = (Element.BDictionary) element;
+        Element.BInteger length = (Element.BInteger) dict.dict().get(new Element.BString("length"));
+        Element.BInteger whole = (Element.BInteger) dict.dict().get(new Element.BString("whole"));
+        Assert.assertEquals(5368709120L, length.longValue());
+        Assert.assertFalse(whole.isLong());
+        Assert.assertEquals(new BigInteger("-123456789012345678901234567890"), whole.bigIntegerValue());
+        Assert.assertEquals(new Element.BInteger(BigInteger.valueOf(42)), new Element.BInteger(42));
+    }
+
+    private static Element parseBytes(String input) {
+        return Parser.parse(new ByteArrayInputStream(input.getBytes(StandardCharsets.US_ASCII)), errorReporter);
+    }
+
     private List<Token> createIntegerNumber(int value){
         return tokens(new TokenInfo(TokenType.INTEGER_BEGIN, null), new TokenInfo(TokenType.INTEGER, value),
                 new TokenInfo(TokenType.END_TYPE, null));
@@ -0,0 +1,77 @@
+package com.github.plugatarev.bencode;
+
+import com.github.plugatarev.bencode.lexer.ByteInput;
+import com.github.plugatarev.bencode.parser.BencodeReader;
+import com.github.plugatarev.bencode.parser.Element;
+import com.github.plugatarev.bencode.parser.Parser;
+import com.github.plugatarev.bencode.parser.ParserException;
+import com.github.plugatarev.bencode.query.PathQuery;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+public class PathQueryTest {
+    private static final TestReporter errorReporter = new TestReporter();
+    private static final String TORRENT = "d8:announce3:url4:infod5:filesld6:lengthi10e4:pathl1:aeed6:lengthi20e4:pathl1:b1:ceee"
+            + "4:name3:dir12:piece lengthi16384eee";
+
+    private static ByteBuffer bytes(String input) {
+        return ByteBuffer.wrap(input.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    public void keysAndWildcards() {
+        Assert.assertArrayEquals(new long[]{10, 20}, PathQuery.compile("info.files[*].length").longs(bytes(TORRENT)));
+        Assert.assertEquals(List.of("dir"), PathQuery.compile("info.name").strings(bytes(TORRENT)));
+        Assert.assertEquals(List.of("c"), PathQuery.compile("info.files[1].path[1]").strings(bytes(TORRENT)));
+        Assert.assertEquals(List.of("a", "b", "c"), PathQuery.compile("info.files.*.path.*").strings(bytes(TORRENT)));
+        Assert.assertArrayEquals(new long[]{16384}, PathQuery.compile("info['piece length']").longs(bytes(TORRENT)));
+        Assert.assertEquals(List.of(), PathQuery.compile("info.files[5].length").select(bytes(TORRENT)));
+        Assert.assertEquals(List.of(), PathQuery.compile("announce.x").select(bytes(TORRENT)));
+    }
+
+    @Test
+    public void selectsWholeSubtrees() {
+        Element tree = Parser.parse(bytes(TORRENT), errorReporter);
+        Assert.assertEquals(List.of(tree), PathQuery.compile("").select(bytes(TORRENT)));
+        Element info = ((Element.BDictionary) tree).dict().get(new Element.BString("info"));
+        Assert.assertEquals(List.of(info), PathQuery.compile("info").select(bytes(TORRENT)));
+    }
+
+    @Test
+    public void severalQueriesInOnePass() {
+        BencodeReader reader = new BencodeReader(ByteInput.wrap(bytes(TORRENT)), errorReporter);
+        List<List<Element>> results = PathQuery.select(reader, List.of(
+                PathQuery.compile("info.files"),
+                PathQuery.compile("info.files[*].length"),
+                PathQuery.compile("announce")));
+        Assert.assertEquals(2, ((Element.BList) results.get(0).get(0)).list().size());
+        Assert.assertEquals(List.of(new Element.BInteger(10), new Element.BInteger(20)), results.get(1));
+        Assert.assertEquals(List.of(new Element.BString("url")), results.get(2));
+    }
+
+    @Test
+    public void malformedPath() {
+        for (String path : new String[]{"info.", "a..b", "[x]", "[-1]", "a[1", ".a"}) {
+            try {
+                PathQuery.compile(path);
+                Assert.fail(path);
+            } catch (IllegalArgumentException expected) {
+                // malformed
+            }
+        }
+    }
+
+    @Test(expected = ParserException.class)
+    public void malformedInput() {
+        PathQuery.compile("b").select(bytes("d1:ai01e1:bi1ee"));
+    }
+
+    @Test(expected = ParserException.class)
+    public void trailingData() {
+        PathQuery.compile("a").select(bytes("d1:ai1eei2e"));
+    }
+}
@@ -0,0 +1,84 @@
+package com.github.plugatarev.bencode;
+
+import com.github.plugatarev.bencode.binding.BindingException;
+import com.github.plugatarev.bencode.binding.RecordBinder;
+import com.github.plugatarev.bencode.parser.Element;
+import com.github.plugatarev.bencode.parser.ParserException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+public class RecordBinderTest {
+    record Info(String name, long length, byte[] pieces) {
+    }
+
+    record Torrent(String announce, Info info, List<String> tags, Map<String, Long> sizes, boolean isPrivate) {
+    }
+
+    record Raw(Element extra, BigInteger big, int count) {
+    }
+
+    private static ByteBuffer bytes(String input) {
+        return ByteBuffer.wrap(input.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    public void nestedRecord() {
+        Torrent torrent = RecordBinder.decode(bytes(
+                "d8:announce3:url7:comment4:skip4:infod6:lengthi10e4:name4:file6:pieces2:abe"
+                        + "5:sizesd1:ai1e1:bi2ee4:tagsl1:x1:yee"), Torrent.class);
+        Assert.assertEquals("url", torrent.announce());
+        Assert.assertEquals("file", torrent.info().name());
+        Assert.assertEquals(10, torrent.info().length());
+        Assert.assertArrayEquals("ab".getBytes(StandardCharsets.US_ASCII), torrent.info().pieces());
+        Assert.assertEquals(List.of("x", "y"), torrent.tags());
+        Assert.assertEquals(Map.of("a", 1L, "b", 2L), torrent.sizes());
+        Assert.assertFalse(torrent.isPrivate());
+    }
+
+    @Test
+    public void missingAndUnknownKeys() {
+        Raw raw = RecordBinder.decode(bytes("d3:bigi123456789012345678901234567890e7:unknownd1:al1:beee"), Raw.class);
+        Assert.assertEquals(new BigInteger("123456789012345678901234567890"), raw.big());
+        Assert.assertNull(raw.extra());
+        Assert.assertEquals(0, raw.count());
+    }
+
+    @Test
+    public void rawElement() {
+        Raw raw = RecordBinder.decode(bytes("d5:counti3e5:extrald1:ai1eeee"), Raw.class);
+        Assert.assertEquals(3, raw.count());
+        Assert.assertEquals(new Element.BList(List.of(new Element.BDictionary(
+                Map.of(new Element.BString("a"), new Element.BInteger(1))))), raw.extra());
+    }
+
+    @Test(expected = BindingException.class)
+    public void typeMismatch() {
+        RecordBinder.decode(bytes("d6:length4:filee"), Info.class);
+    }
+
+    @Test(expected = ParserException.class)
+    public void malformedInput() {
+        RecordBinder.decode(bytes("d4:name4:file6:lengthi1ee"), Info.class);
+    }
+
+    @Test(expected = BindingException.class)
+    public void intOverflow() {
+        RecordBinder.decode(bytes("d5:counti99999999999ee"), Raw.class);
+    }
+
+    @Test(expected = BindingException.class)
+    public void longOverflow() {
+        RecordBinder.decode(bytes("d6:lengthi99999999999999999999ee"), Info.class);
+    }
+
+    @Test(expected = ParserException.class)
+    public void trailingData() {
+        RecordBinder.decode(bytes("d4:name1:xe garbage"), Info.class);
+    }
+}
@@ -0,0 +1,109 @@
+package com.github.plugatarev.bencode;
+
+import com.github.plugatarev.bencode.error.ErrorReporter;
+import com.github.plugatarev.bencode.parser.Element;
+import com.github.plugatarev.bencode.parser.Parser;
+import com.github.plugatarev.bencode.parser.ReusableParser;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+
+public class ReusableParserTest {
+    private final TestReporter errorReporter = new TestReporter();
+
+    private static ByteBuffer bytes(String input) {
+        return ByteBuffer.wrap(input.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    public void sameAsParser() {
+        ReusableParser parser = new ReusableParser();
+        String[] inputs = {
+                "d8:completei120e10:incompletei31e8:intervali1800e5:peers6:abcdefe",
+                "lld1:ai1eeli2ei3eeee",
+                "d1:ad1:bd1:cleeee",
+                "i-42e",
+                "le"
+        };
+        for (int round = 0; round < 3; round++) {
+            for (String input : inputs) {
+                Assert.assertEquals(Parser.parse(bytes(input), errorReporter), parser.parse(bytes(input), errorReporter));
+            }
+        }
+        Assert.assertFalse(errorReporter.hasError());
+    }
+
+    @Test
+    public void resultsDoNotShareScratch() {
+        ReusableParser parser = new ReusableParser();
+        Element first = parser.parse(bytes("d1:ali1ei2eee"), errorReporter);
+        Element second = parser.parse(bytes("d1:bli3eee"), errorReporter);
+        Assert.assertEquals(Parser.parse(bytes("d1:ali1ei2eee"), errorReporter), first);
+        Assert.assertEquals(Parser.parse(bytes("d1:bli3eee"), errorReporter), second);
+    }
+
+    @Test
+    public void recoversAfterErrors() {
+        ReusableParser parser = new ReusableParser();
+        Assert.assertNull(parser.parse(bytes("d1:ali1ei01eee"), errorReporter));
+        Assert.assertTrue(errorReporter.hasError());
+        errorReporter.clear();
+        Assert.assertNull(parser.parse(bytes("d1:bi1e1:ai2ee"), errorReporter));
+        errorReporter.clear();
+        Assert.assertEquals(Parser.parse(bytes("d1:ali7eee"), errorReporter), parser.parse(bytes("d1:ali7eee"), errorReporter));
+        Assert.assertFalse(errorReporter.hasError());
+    }
+
+    @Test
+    public void largeContainersBetweenSmallOnes() {
+        ReusableParser parser = new ReusableParser();
+        StringBuilder large = new StringBuilder("d1:al");
+        for (int i = 0; i < 5000; i++) {
+            large.append("i").append(i).append("e");
+        }
+        large.append("e1:bd");
+        for (int i = 0; i < 5000; i++) {
+            large.append(String.format("5:k%04de", i)).append("i").append(i).append("e");
+        }
+        String input = large.append("ee").toString();
+        Assert.assertEquals(Parser.parse(bytes(input), errorReporter), parser.parse(bytes(input), errorReporter));
+        Assert.assertNull(parser.parse(bytes(input.substring(0, input.length() - 2)), errorReporter));
+        errorReporter.clear();
+        Assert.assertEquals(Parser.parse(bytes("d1:ali7eee"), errorReporter), parser.parse(bytes("d1:ali7eee"), errorReporter));
+        Assert.assertFalse(errorReporter.hasError());
+    }
+
+    @Test
+    public void nestedCallFromReporter() {
+        ReusableParser parser = ReusableParser.forCurrentThread();
+        Element[] nested = new Element[1];
+        ErrorReporter reporter = new ErrorReporter() {
+            private boolean error;
+
+            @Override
+            public boolean report(String message) {
+                error = true;
+                nested[0] = ReusableParser.forCurrentThread().parse(bytes("li5ee"), errorReporter);
+                return false;
+            }
+
+            @Override
+            public boolean hasError() {
+                return error;
+            }
+        };
+        Assert.assertNull(parser.parse(bytes("li1ei01ee"), reporter));
+        Assert.assertEquals(Parser.parse(bytes("li5ee"), errorReporter), nested[0]);
+    }
+
+    @Test
+    public void onePerThread() throws Exception {
+        ReusableParser own = ReusableParser.forCurrentThread();
+        Assert.assertSame(own, ReusableParser.forCurrentThread());
+        ReusableParser other = CompletableFuture.supplyAsync(ReusableParser::forCurrentThread).get();
+        Assert.assertNotSame(own, other);
+    }
+}
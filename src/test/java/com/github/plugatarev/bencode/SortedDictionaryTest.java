@@ -0,0 +1,67 @@
+package com.github.plugatarev.bencode;
+
+import com.github.plugatarev.bencode.parser.Element;
+import com.github.plugatarev.bencode.parser.Parser;
+import com.github.plugatarev.bencode.parser.SortedDictionary;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+public class SortedDictionaryTest {
+
+    @Test
+    public void lookupAndIteration() {
+        SortedDictionary.Builder builder = new SortedDictionary.Builder();
+        for (String key : List.of("a", "b", "c", "d", "e")) {
+            Assert.assertTrue(builder.put(new Element.BString(key), new Element.BString(key + key)));
+        }
+        SortedDictionary dict = builder.build();
+        Assert.assertEquals(5, dict.size());
+        Assert.assertEquals(new Element.BString("cc"), dict.get(new Element.BString("c")));
+        Assert.assertNull(dict.get(new Element.BString("f")));
+        Assert.assertNull(dict.get("c"));
+        Assert.assertEquals(List.of("a", "b", "c", "d", "e"), dict.keySet().stream().map(Element.BString::str).toList());
+    }
+
+    @Test
+    public void orderCheckedOnInsert() {
+        SortedDictionary.Builder builder = new SortedDictionary.Builder();
+        Assert.assertTrue(builder.put(new Element.BString("spam"), new Element.BInteger(1)));
+        Assert.assertTrue(builder.put(new Element.BString("spam"), new Element.BInteger(2)));
+        Assert.assertFalse(builder.put(new Element.BString("key"), new Element.BInteger(3)));
+        SortedDictionary dict = builder.build();
+        Assert.assertFalse(dict.isSorted());
+        Assert.assertEquals(new Element.BInteger(2), dict.get(new Element.BString("spam")));
+        Assert.assertEquals(new Element.BInteger(3), dict.get(new Element.BString("key")));
+    }
+
+    @Test
+    public void builderReusedAfterBuild() {
+        SortedDictionary.Builder builder = new SortedDictionary.Builder();
+        for (String key : List.of("d", "c", "b", "a")) {
+            builder.put(new Element.BString(key), new Element.BInteger(1));
+        }
+        SortedDictionary first = builder.build();
+        Assert.assertEquals(0, builder.build().size());
+        Assert.assertTrue(builder.put(new Element.BString("x"), new Element.BInteger(2)));
+        Assert.assertTrue(builder.isSorted());
+        SortedDictionary second = builder.build();
+        Assert.assertEquals(4, first.size());
+        Assert.assertEquals(new Element.BInteger(1), first.get(new Element.BString("a")));
+        Assert.assertEquals(Map.of(new Element.BString("x"), new Element.BInteger(2)), second);
+    }
+
+    @Test
+    public void parsedDictionaries() {
+        Element element = Parser.parse(ByteBuffer.wrap("d3:bar4:spam3:fooi42ee".getBytes(StandardCharsets.US_ASCII)),
+                new TestReporter());
+        Map<Element.BString, Element> dict = ((Element.BDictionary) element).dict();
+        Assert.assertTrue(dict instanceof SortedDictionary);
+        Assert.assertEquals(Map.of(new Element.BString("bar"), new Element.BString("spam"),
+                new Element.BString("foo"), new Element.BInteger(42)), dict);
+    }
+}
@@ -0,0 +1,100 @@
+package com.github.plugatarev.bencode;
+
+import com.github.plugatarev.bencode.lexer.ByteInput;
+import com.github.plugatarev.bencode.parser.Element;
+import com.github.plugatarev.bencode.parser.KeyCache;
+import com.github.plugatarev.bencode.parser.Parser;
+import com.github.plugatarev.bencode.parser.SpanDigest;
+import com.github.plugatarev.bencode.parser.SpanListener;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+
+public class SpanDigestTest {
+    private static final TestReporter errorReporter = new TestReporter();
+
+    private static MessageDigest sha1() {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static String torrent(int pieces) {
+        String info = "d6:lengthi10e4:name4:file6:pieces" + pieces + ":" + "x".repeat(pieces) + "e";
+        return "d8:announce3:url4:info" + info + "e";
+    }
+
+    private static byte[] expected(String document) {
+        int from = document.indexOf("4:info") + 6;
+        byte[] info = document.substring(from, document.length() - 1).getBytes(StandardCharsets.US_ASCII);
+        return sha1().digest(info);
+    }
+
+    private static byte[] infoHash(ByteInput in) {
+        SpanDigest digest = new SpanDigest(in, sha1(), "info");
+        Assert.assertNotNull(Parser.parse(in, errorReporter, digest));
+        return digest.digest();
+    }
+
+    @Test
+    public void buffer() {
+        String document = torrent(20);
+        ByteInput in = ByteInput.wrap(ByteBuffer.wrap(document.getBytes(StandardCharsets.US_ASCII)));
+        Assert.assertArrayEquals(expected(document), infoHash(in));
+    }
+
+    @Test
+    public void channelAcrossChunks() {
+        String document = torrent(50_000);
+        byte[] bytes = document.getBytes(StandardCharsets.US_ASCII);
+        ByteInput in = ByteInput.of(new ByteArrayInputStream(bytes));
+        Assert.assertArrayEquals(expected(document), infoHash(in));
+    }
+
+    @Test
+    public void stringLengthAcrossChunks() {
+        String value = "20000:" + "y".repeat(20_000);
+        String padding = "x".repeat(8190 - "d1:a8175:4:info".length());
+        String document = "d1:a" + padding.length() + ":" + padding + "4:info" + value + "e";
+        Assert.assertEquals(8190, document.indexOf(value));
+        ByteInput in = ByteInput.of(new ByteArrayInputStream(document.getBytes(StandardCharsets.US_ASCII)));
+        Assert.assertArrayEquals(sha1().digest(value.getBytes(StandardCharsets.US_ASCII)), infoHash(in));
+    }
+
+    @Test
+    public void withKeyCache() {
+        String document = torrent(20);
+        ByteInput in = ByteInput.wrap(ByteBuffer.wrap(document.getBytes(StandardCharsets.US_ASCII)));
+        SpanDigest digest = new SpanDigest(in, sha1(), "info");
+        Assert.assertNotNull(Parser.parse(in, errorReporter, new KeyCache(64), digest));
+        Assert.assertArrayEquals(expected(document), digest.digest());
+    }
+
+    @Test
+    public void missingKey() {
+        ByteInput in = ByteInput.wrap(ByteBuffer.wrap("d3:keyd4:infoi1eee".getBytes(StandardCharsets.US_ASCII)));
+        Assert.assertNull(infoHash(in));
+    }
+
+    @Test
+    public void spans() {
+        String input = "d1:ali1e2:bce1:bi-5ee";
+        List<String> spans = new ArrayList<>();
+        SpanListener listener = (element, depth, key, start, end) ->
+                spans.add(depth + " " + (key == null ? "-" : key.asString(StandardCharsets.US_ASCII)) + " "
+                        + input.substring((int) start, (int) end));
+        Element element = Parser.parse(ByteInput.wrap(ByteBuffer.wrap(input.getBytes(StandardCharsets.US_ASCII))),
+                errorReporter, listener);
+        Assert.assertNotNull(element);
+        Assert.assertEquals(List.of("2 - i1e", "2 - 2:bc", "1 a li1e2:bce", "1 b i-5e", "0 - " + input), spans);
+    }
+}
@@ -0,0 +1,92 @@
+package com.github.plugatarev.bencode;
+
+import com.github.plugatarev.bencode.parser.Element;
+import com.github.plugatarev.bencode.parser.Parser;
+import com.github.plugatarev.bencode.parser.Tape;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+public class TapeTest {
+    private static final TestReporter errorReporter = new TestReporter();
+
+    private static ByteBuffer bytes(String input) {
+        return ByteBuffer.wrap(input.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static Tape parse(String input) {
+        return Tape.parse(bytes(input), errorReporter);
+    }
+
+    @Test
+    public void navigation() {
+        Tape tape = parse("d8:announce3:url4:infod6:lengthi10e4:name4:filee6:piecesl1:a1:bee");
+        int root = tape.root();
+        Assert.assertEquals(Tape.Type.DICTIONARY, tape.type(root));
+        Assert.assertEquals(3, tape.count(root));
+        Assert.assertEquals(tape.size(), tape.next(root));
+
+        int info = tape.get(root, "info");
+        Assert.assertEquals(Tape.Type.DICTIONARY, tape.type(info));
+        Assert.assertEquals(10, tape.longValue(tape.get(info, "length")));
+        Assert.assertEquals(new Element.BString("file"), tape.string(tape.get(info, "name")));
+        Assert.assertEquals(-1, tape.get(info, "missing"));
+
+        int announce = tape.get(root, "announce");
+        Assert.assertEquals(new Element.BString("url"), tape.string(announce));
+        Assert.assertEquals(13, tape.offset(announce));
+        Assert.assertEquals(3, tape.length(announce));
+
+        int pieces = tape.get(root, "pieces");
+        Assert.assertEquals(Tape.Type.LIST, tape.type(pieces));
+        int first = tape.firstChild(pieces);
+        Assert.assertEquals(new Element.BString("a"), tape.string(first));
+        Assert.assertEquals(new Element.BString("b"), tape.string(tape.next(first)));
+        Assert.assertEquals(tape.next(pieces), tape.next(tape.next(first)));
+    }
+
+    @Test
+    public void skipSubtree() {
+        Tape tape = parse("lld1:ali1ei2eeeei7ee");
+        int inner = tape.firstChild(tape.root());
+        int number = tape.next(inner);
+        Assert.assertEquals(7, tape.longValue(number));
+        Assert.assertEquals(tape.size(), tape.next(number));
+    }
+
+    @Test
+    public void sameAsParser() {
+        String input = "d3:cow3:moo3:keyd2:bb3:hhh2:ffd4:keysl1:i1:d1:l1:eeee4:spaml4:infoi343242e5:6$%!$ee";
+        Tape tape = parse(input);
+        Assert.assertEquals(Parser.parse(bytes(input), errorReporter), tape.element(tape.root()));
+    }
+
+    @Test
+    public void largeNumbers() {
+        Tape tape = parse("li-9223372036854775808ei123456789012345678901234567890ee");
+        int first = tape.firstChild(tape.root());
+        Assert.assertEquals(Long.MIN_VALUE, tape.longValue(first));
+        Assert.assertEquals(new BigInteger("123456789012345678901234567890"), tape.bigValue(tape.next(first)));
+        Assert.assertEquals(Tape.Type.INTEGER, tape.type(tape.next(first)));
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void longValueOverflow() {
+        Tape tape = parse("i123456789012345678901234567890e");
+        tape.longValue(tape.root());
+    }
+
+    @Test
+    public void malformed() {
+        Assert.assertNull(parse("d3:keyl1:a"));
+        Assert.assertNull(parse("i1ei2e"));
+        Assert.assertNull(parse("d4:spami1e3:keyi2ee"));
+        Assert.assertNull(parse("li01ee"));
+        Assert.assertNull(parse("d1:ae"));
+        Assert.assertTrue(errorReporter.hasError());
+        errorReporter.clear();
+    }
+}
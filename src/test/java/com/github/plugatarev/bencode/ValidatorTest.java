@@ -0,0 +1,58 @@
+package com.github.plugatarev.bencode;
+
+import com.github.plugatarev.bencode.error.BencodeError;
+import com.github.plugatarev.bencode.parser.Parser;
+import com.github.plugatarev.bencode.parser.Validator;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+public class ValidatorTest {
+
+    private static ByteBuffer bytes(String input) {
+        return ByteBuffer.wrap(input.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static void assertError(String input, BencodeError.Code code, long offset) {
+        Validator.Verdict verdict = Bencode.validate(bytes(input));
+        Assert.assertEquals(input, new Validator.Verdict(code, offset), verdict);
+    }
+
+    @Test
+    public void sameVerdictAsParser() {
+        String[] inputs = {
+                "d3:cow3:moo3:keyd2:bb3:hhh2:ffd4:keysl1:i1:d1:l1:eeee4:spaml4:infoi343242e5:6$%!$ee",
+                "i-42e", "i0e", "0:", "le", "de", "li123456789012345678901234567890ee",
+                "i01e", "i-0e", "3:ab", "d4:spami1e3:keyi2ee", "d1:ae", "di1ei2ee", "l", "e",
+                "i1", "l*e", "4:spam", "d1:a1:b1:a1:ce", "i-e", "ie", "01:a"
+        };
+        for (String input : inputs) {
+            TestReporter reporter = new TestReporter();
+            boolean parsed = Parser.parse(bytes(input), reporter) != null;
+            Assert.assertEquals(input, parsed, Bencode.validate(bytes(input)).isValid());
+        }
+    }
+
+    @Test
+    public void firstErrorOffset() {
+        assertError("li1ei01ee", BencodeError.Code.NUMBER_WITH_DEAD_ZEROS, 5);
+        assertError("li-0ee", BencodeError.Code.NUMBER_WITH_DEAD_ZEROS, 2);
+        assertError("l5:abce", BencodeError.Code.INCORRECT_STRING_LENGTH, 3);
+        assertError("l1:ad4:spami1e3:keyi2eee", BencodeError.Code.KEY_ORDER, 4);
+        assertError("l*e", BencodeError.Code.UNKNOWN_CHAR, 1);
+        assertError("d1:ae", BencodeError.Code.UNEXPECTED_TOKEN, 4);
+        assertError("d3:keyl1:a", BencodeError.Code.UNEXPECTED_TOKEN, 10);
+        assertError("i1ei2e", BencodeError.Code.UNEXPECTED_TOKEN, 3);
+        assertError("99999999999:a", BencodeError.Code.INCORRECT_NUMBER, 0);
+    }
+
+    @Test
+    public void bufferPositionIsKept() {
+        ByteBuffer buffer = bytes("xxi01e");
+        buffer.position(2);
+        Assert.assertEquals(new Validator.Verdict(BencodeError.Code.NUMBER_WITH_DEAD_ZEROS, 1), Bencode.validate(buffer));
+        Assert.assertEquals(2, buffer.position());
+    }
+}